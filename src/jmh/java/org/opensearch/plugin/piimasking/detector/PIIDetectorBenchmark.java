@@ -0,0 +1,103 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.plugin.piimasking.detector;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.opensearch.plugin.piimasking.config.PIIConfiguration;
+import org.opensearch.plugin.piimasking.processor.PIIMaskingProcessor;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Detection cost of the default rules on an 8 KB log line, with trigger gating and windows
+ * as configured by default ("windows"), with triggers as a whole-text gate only ("gate"),
+ * and with no triggers at all ("none").
+ *
+ * Run with: ./gradlew jmh
+ */
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class PIIDetectorBenchmark {
+
+    private static final int LINE_BYTES = 8192;
+
+    @Param({ "windows", "gate", "none" })
+    public String triggers;
+
+    @Param({ "plain", "timestamps", "sparse_pii" })
+    public String text;
+
+    private PIIDetector detector;
+    private String line;
+
+    @Setup
+    public void setup() {
+        Map<String, PIIConfiguration.MaskingRule> rules = new HashMap<>();
+        for (Map.Entry<String, PIIConfiguration.MaskingRule> entry : PIIMaskingProcessor.getGlobalConfiguration()
+            .getMaskingRules()
+            .entrySet()) {
+            PIIConfiguration.MaskingRule rule = entry.getValue();
+            switch (triggers) {
+                case "gate":
+                    rule = new PIIConfiguration.MaskingRule(rule.getPattern(), rule.getMask(), rule.getPriority(),
+                                                            rule.getTriggers());
+                    break;
+                case "none":
+                    rule = new PIIConfiguration.MaskingRule(rule.getPattern(), rule.getMask(), rule.getPriority());
+                    break;
+                default:
+                    break;
+            }
+            rules.put(entry.getKey(), rule);
+        }
+        detector = new PIIDetector(new PIIConfiguration(true, "audit-bench", rules, List.of("message"), false));
+        line = buildLine(text);
+    }
+
+    private static String buildLine(String kind) {
+        String filler = "the quick brown fox jumps over the lazy dog ";
+        StringBuilder sb = new StringBuilder(LINE_BYTES);
+        switch (kind) {
+            case "timestamps":
+                sb.append("2025-08-25T18:31:40.123Z ");
+                break;
+            case "sparse_pii":
+                sb.append("2025-08-25T18:31:40.123Z user john.doe@example.com ssn 123-45-6789 ");
+                break;
+            default:
+                break;
+        }
+        while (sb.length() < LINE_BYTES) {
+            sb.append(filler);
+        }
+        sb.setLength(LINE_BYTES);
+        return sb.toString();
+    }
+
+    @Benchmark
+    public PIIDetector.PIIMaskingResult detectAndMask() {
+        return detector.detectAndMask(line);
+    }
+}
@@ -7,13 +7,49 @@
  */
 package org.opensearch.plugin.piimasking;
 
+import org.opensearch.action.ActionRequest;
+import org.opensearch.cluster.metadata.IndexNameExpressionResolver;
+import org.opensearch.cluster.node.DiscoveryNodes;
+import org.opensearch.cluster.service.ClusterService;
+import org.opensearch.common.settings.ClusterSettings;
+import org.opensearch.common.settings.IndexScopedSettings;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.common.settings.SettingsFilter;
+import org.opensearch.core.action.ActionResponse;
+import org.opensearch.core.common.io.stream.NamedWriteableRegistry;
+import org.opensearch.core.xcontent.NamedXContentRegistry;
+import org.opensearch.env.Environment;
+import org.opensearch.env.NodeEnvironment;
+import org.opensearch.indices.SystemIndexDescriptor;
 import org.opensearch.ingest.Processor;
+import org.opensearch.plugin.piimasking.processor.OffloadExecutor;
 import org.opensearch.plugin.piimasking.processor.PIIMaskingProcessor;
+import org.opensearch.plugin.piimasking.remask.RemaskAction;
+import org.opensearch.plugin.piimasking.remask.RemaskCheckpoint;
+import org.opensearch.plugin.piimasking.remask.RemaskStatusAction;
+import org.opensearch.plugin.piimasking.remask.TransportRemaskAction;
+import org.opensearch.plugin.piimasking.remask.TransportRemaskStatusAction;
+import org.opensearch.plugin.piimasking.rest.RestPIIMaskingStatsAction;
+import org.opensearch.plugin.piimasking.rest.RestRemaskAction;
+import org.opensearch.plugin.piimasking.stats.PIIMaskingStatsAction;
+import org.opensearch.plugin.piimasking.stats.TransportPIIMaskingStatsAction;
+import org.opensearch.plugins.ActionPlugin;
 import org.opensearch.plugins.IngestPlugin;
 import org.opensearch.plugins.Plugin;
+import org.opensearch.plugins.SystemIndexPlugin;
+import org.opensearch.repositories.RepositoriesService;
+import org.opensearch.rest.RestController;
+import org.opensearch.rest.RestHandler;
+import org.opensearch.script.ScriptService;
+import org.opensearch.threadpool.ThreadPool;
+import org.opensearch.transport.client.Client;
+import org.opensearch.watcher.ResourceWatcherService;
 
+import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 /**
  * PII Masking Plugin for OpenSearch
@@ -26,13 +62,58 @@ import java.util.Map;
  * - Document masking before indexing  
  * - Audit logging of all PII masking activities
  * - Support for emails, SSNs, credit cards, phone numbers
+ * - Re-masking of existing indices with the current rules
  */
-public class PIIMaskingPlugin extends Plugin implements IngestPlugin {
+public class PIIMaskingPlugin extends Plugin implements IngestPlugin, ActionPlugin, SystemIndexPlugin {
     
     public static final String PROCESSOR_TYPE = "pii-masking";
     
+    private final OffloadExecutor offloadExecutor = new OffloadExecutor();
+    
+    /**
+     * Expose the offload executor to transport actions, so its counters can be reported
+     */
+    @Override
+    public Collection<Object> createComponents(Client client, ClusterService clusterService, ThreadPool threadPool,
+                                               ResourceWatcherService resourceWatcherService,
+                                               ScriptService scriptService, NamedXContentRegistry xContentRegistry,
+                                               Environment environment, NodeEnvironment nodeEnvironment,
+                                               NamedWriteableRegistry namedWriteableRegistry,
+                                               IndexNameExpressionResolver indexNameExpressionResolver,
+                                               Supplier<RepositoriesService> repositoriesServiceSupplier) {
+        return List.of(offloadExecutor);
+    }
+    
     @Override
     public Map<String, Processor.Factory> getProcessors(Processor.Parameters parameters) {
-        return Collections.singletonMap(PROCESSOR_TYPE, new PIIMaskingProcessor.Factory(parameters));
+        return Collections.singletonMap(PROCESSOR_TYPE, new PIIMaskingProcessor.Factory(parameters, offloadExecutor));
+    }
+    
+    @Override
+    public List<RestHandler> getRestHandlers(Settings settings, RestController restController,
+                                             ClusterSettings clusterSettings, IndexScopedSettings indexScopedSettings,
+                                             SettingsFilter settingsFilter,
+                                             IndexNameExpressionResolver indexNameExpressionResolver,
+                                             Supplier<DiscoveryNodes> nodesInCluster) {
+        return List.of(new RestRemaskAction(), new RestPIIMaskingStatsAction());
+    }
+    
+    @Override
+    public List<ActionHandler<? extends ActionRequest, ? extends ActionResponse>> getActions() {
+        return List.of(
+            new ActionHandler<>(RemaskAction.INSTANCE, TransportRemaskAction.class),
+            new ActionHandler<>(RemaskStatusAction.INSTANCE, TransportRemaskStatusAction.class),
+            new ActionHandler<>(PIIMaskingStatsAction.INSTANCE, TransportPIIMaskingStatsAction.class)
+        );
+    }
+    
+    @Override
+    public Collection<SystemIndexDescriptor> getSystemIndexDescriptors(Settings settings) {
+        return List.of(new SystemIndexDescriptor(RemaskCheckpoint.INDEX_NAME, "Checkpoints of PII re-masking jobs"));
+    }
+    
+    @Override
+    public void close() {
+        offloadExecutor.close();
     }
 }
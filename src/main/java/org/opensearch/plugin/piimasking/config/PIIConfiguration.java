@@ -19,6 +19,7 @@ import org.opensearch.core.xcontent.XContentParser;
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 
@@ -32,12 +33,18 @@ public class PIIConfiguration implements ToXContentObject, Writeable {
     private static final ParseField MASKING = new ParseField("masking");
     private static final ParseField FIELDS_TO_CHECK = new ParseField("fields_to_check");
     private static final ParseField STRICT_MODE = new ParseField("strict_mode");
+    private static final ParseField OVERLAP_STRATEGY = new ParseField("overlap_strategy");
+    private static final ParseField SCAN_LIMITS = new ParseField("scan_limits");
+    private static final ParseField OFFLOAD = new ParseField("offload");
     
     private final boolean enabled;
     private final String auditIndex;
     private final Map<String, MaskingRule> maskingRules;
     private final List<String> fieldsToCheck;
     private final boolean strictMode;
+    private final OverlapStrategy overlapStrategy;
+    private final ScanLimits scanLimits;
+    private final OffloadSettings offloadSettings;
     
     @SuppressWarnings("unchecked")
     public static final ConstructingObjectParser<PIIConfiguration, Void> PARSER = new ConstructingObjectParser<>(
@@ -47,7 +54,10 @@ public class PIIConfiguration implements ToXContentObject, Writeable {
             args[1] != null ? (String) args[1] : "pii-audit-log",
             args[2] != null ? (Map<String, MaskingRule>) args[2] : new HashMap<>(),
             args[3] != null ? (List<String>) args[3] : List.of("message"),
-            args[4] != null ? (Boolean) args[4] : false
+            args[4] != null ? (Boolean) args[4] : false,
+            args[5] != null ? OverlapStrategy.fromString((String) args[5]) : OverlapStrategy.PRIORITY,
+            args[6] != null ? (ScanLimits) args[6] : ScanLimits.UNLIMITED,
+            args[7] != null ? (OffloadSettings) args[7] : OffloadSettings.INLINE
         )
     );
     
@@ -58,15 +68,41 @@ public class PIIConfiguration implements ToXContentObject, Writeable {
             (p, c) -> parseMaskingRules(p), MASKING);
         PARSER.declareStringArray(ConstructingObjectParser.optionalConstructorArg(), FIELDS_TO_CHECK);
         PARSER.declareBoolean(ConstructingObjectParser.optionalConstructorArg(), STRICT_MODE);
+        PARSER.declareString(ConstructingObjectParser.optionalConstructorArg(), OVERLAP_STRATEGY);
+        PARSER.declareObject(ConstructingObjectParser.optionalConstructorArg(), 
+            (p, c) -> ScanLimits.fromXContent(p), SCAN_LIMITS);
+        PARSER.declareObject(ConstructingObjectParser.optionalConstructorArg(), 
+            (p, c) -> OffloadSettings.fromXContent(p), OFFLOAD);
     }
     
     public PIIConfiguration(boolean enabled, String auditIndex, Map<String, MaskingRule> maskingRules, 
                            List<String> fieldsToCheck, boolean strictMode) {
+        this(enabled, auditIndex, maskingRules, fieldsToCheck, strictMode, OverlapStrategy.PRIORITY);
+    }
+    
+    public PIIConfiguration(boolean enabled, String auditIndex, Map<String, MaskingRule> maskingRules, 
+                           List<String> fieldsToCheck, boolean strictMode, OverlapStrategy overlapStrategy) {
+        this(enabled, auditIndex, maskingRules, fieldsToCheck, strictMode, overlapStrategy, ScanLimits.UNLIMITED);
+    }
+    
+    public PIIConfiguration(boolean enabled, String auditIndex, Map<String, MaskingRule> maskingRules, 
+                           List<String> fieldsToCheck, boolean strictMode, OverlapStrategy overlapStrategy,
+                           ScanLimits scanLimits) {
+        this(enabled, auditIndex, maskingRules, fieldsToCheck, strictMode, overlapStrategy, scanLimits, 
+             OffloadSettings.INLINE);
+    }
+    
+    public PIIConfiguration(boolean enabled, String auditIndex, Map<String, MaskingRule> maskingRules, 
+                           List<String> fieldsToCheck, boolean strictMode, OverlapStrategy overlapStrategy,
+                           ScanLimits scanLimits, OffloadSettings offloadSettings) {
         this.enabled = enabled;
         this.auditIndex = auditIndex;
         this.maskingRules = maskingRules;
         this.fieldsToCheck = fieldsToCheck;
         this.strictMode = strictMode;
+        this.overlapStrategy = overlapStrategy;
+        this.scanLimits = scanLimits;
+        this.offloadSettings = offloadSettings;
     }
     
     public PIIConfiguration(StreamInput in) throws IOException {
@@ -75,6 +111,9 @@ public class PIIConfiguration implements ToXContentObject, Writeable {
         this.maskingRules = in.readMap(StreamInput::readString, MaskingRule::new);
         this.fieldsToCheck = in.readStringList();
         this.strictMode = in.readBoolean();
+        this.overlapStrategy = in.readEnum(OverlapStrategy.class);
+        this.scanLimits = new ScanLimits(in);
+        this.offloadSettings = new OffloadSettings(in);
     }
     
     @Override
@@ -84,6 +123,9 @@ public class PIIConfiguration implements ToXContentObject, Writeable {
         out.writeMap(maskingRules, StreamOutput::writeString, (o, rule) -> rule.writeTo(o));
         out.writeStringCollection(fieldsToCheck);
         out.writeBoolean(strictMode);
+        out.writeEnum(overlapStrategy);
+        scanLimits.writeTo(out);
+        offloadSettings.writeTo(out);
     }
     
     @Override
@@ -98,6 +140,9 @@ public class PIIConfiguration implements ToXContentObject, Writeable {
         builder.endObject();
         builder.field(FIELDS_TO_CHECK.getPreferredName(), fieldsToCheck);
         builder.field(STRICT_MODE.getPreferredName(), strictMode);
+        builder.field(OVERLAP_STRATEGY.getPreferredName(), overlapStrategy.toString());
+        builder.field(SCAN_LIMITS.getPreferredName(), scanLimits);
+        builder.field(OFFLOAD.getPreferredName(), offloadSettings);
         builder.endObject();
         return builder;
     }
@@ -133,6 +178,18 @@ public class PIIConfiguration implements ToXContentObject, Writeable {
         return strictMode;
     }
     
+    public OverlapStrategy getOverlapStrategy() {
+        return overlapStrategy;
+    }
+    
+    public ScanLimits getScanLimits() {
+        return scanLimits;
+    }
+    
+    public OffloadSettings getOffloadSettings() {
+        return offloadSettings;
+    }
+    
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -140,6 +197,9 @@ public class PIIConfiguration implements ToXContentObject, Writeable {
         PIIConfiguration that = (PIIConfiguration) o;
         return enabled == that.enabled &&
                strictMode == that.strictMode &&
+               overlapStrategy == that.overlapStrategy &&
+               Objects.equals(scanLimits, that.scanLimits) &&
+               Objects.equals(offloadSettings, that.offloadSettings) &&
                Objects.equals(auditIndex, that.auditIndex) &&
                Objects.equals(maskingRules, that.maskingRules) &&
                Objects.equals(fieldsToCheck, that.fieldsToCheck);
@@ -147,7 +207,27 @@ public class PIIConfiguration implements ToXContentObject, Writeable {
     
     @Override
     public int hashCode() {
-        return Objects.hash(enabled, auditIndex, maskingRules, fieldsToCheck, strictMode);
+        return Objects.hash(enabled, auditIndex, maskingRules, fieldsToCheck, strictMode, overlapStrategy, 
+                            scanLimits, offloadSettings);
+    }
+    
+    /**
+     * How the detector picks a winner when matches from different rules overlap
+     */
+    public enum OverlapStrategy {
+        /** Higher rule priority wins; ties go to the longer match */
+        PRIORITY,
+        /** Longer match wins; ties go to the higher rule priority */
+        LONGEST_MATCH;
+        
+        public static OverlapStrategy fromString(String value) {
+            return valueOf(value.toUpperCase(Locale.ROOT));
+        }
+        
+        @Override
+        public String toString() {
+            return name().toLowerCase(Locale.ROOT);
+        }
     }
     
     /**
@@ -156,34 +236,76 @@ public class PIIConfiguration implements ToXContentObject, Writeable {
     public static class MaskingRule implements ToXContentObject, Writeable {
         private static final ParseField PATTERN = new ParseField("pattern");
         private static final ParseField MASK = new ParseField("mask");
+        private static final ParseField PRIORITY = new ParseField("priority");
+        private static final ParseField TRIGGERS = new ParseField("triggers");
+        private static final ParseField MAX_MATCH_LENGTH = new ParseField("max_match_length");
         
         public static final ConstructingObjectParser<MaskingRule, Void> PARSER = new ConstructingObjectParser<>(
             "masking_rule",
-            args -> new MaskingRule((String) args[0], (String) args[1])
+            args -> new MaskingRule((String) args[0], (String) args[1], args[2] != null ? (Integer) args[2] : 0,
+                                    args[3] != null ? (String) args[3] : "", args[4] != null ? (Integer) args[4] : -1)
         );
         
         static {
             PARSER.declareString(ConstructingObjectParser.constructorArg(), PATTERN);
             PARSER.declareString(ConstructingObjectParser.constructorArg(), MASK);
+            PARSER.declareInt(ConstructingObjectParser.optionalConstructorArg(), PRIORITY);
+            PARSER.declareString(ConstructingObjectParser.optionalConstructorArg(), TRIGGERS);
+            PARSER.declareInt(ConstructingObjectParser.optionalConstructorArg(), MAX_MATCH_LENGTH);
         }
         
         private final String pattern;
         private final String mask;
+        private final int priority;
+        private final String triggers;
+        private final int maxMatchLength;
         
         public MaskingRule(String pattern, String mask) {
+            this(pattern, mask, 0);
+        }
+        
+        public MaskingRule(String pattern, String mask, int priority) {
+            this(pattern, mask, priority, "");
+        }
+        
+        /**
+         * @param triggers characters of which every match contains at least one; text without any of them
+         *                 is not handed to the regex. Empty means the rule always runs.
+         */
+        public MaskingRule(String pattern, String mask, int priority, String triggers) {
+            this(pattern, mask, priority, triggers, -1);
+        }
+        
+        /**
+         * @param maxMatchLength upper bound on the length of any match, or -1 if unbounded. Together with
+         *                       triggers it limits the regex to windows of this size around trigger characters.
+         */
+        public MaskingRule(String pattern, String mask, int priority, String triggers, int maxMatchLength) {
+            if (maxMatchLength == 0 || maxMatchLength < -1) {
+                throw new IllegalArgumentException("[max_match_length] must be positive or -1, got [" + maxMatchLength + "]");
+            }
             this.pattern = pattern;
             this.mask = mask;
+            this.priority = priority;
+            this.triggers = triggers;
+            this.maxMatchLength = maxMatchLength;
         }
         
         public MaskingRule(StreamInput in) throws IOException {
             this.pattern = in.readString();
             this.mask = in.readString();
+            this.priority = in.readInt();
+            this.triggers = in.readString();
+            this.maxMatchLength = in.readInt();
         }
         
         @Override
         public void writeTo(StreamOutput out) throws IOException {
             out.writeString(pattern);
             out.writeString(mask);
+            out.writeInt(priority);
+            out.writeString(triggers);
+            out.writeInt(maxMatchLength);
         }
         
         public static MaskingRule fromXContent(XContentParser parser) throws IOException {
@@ -195,6 +317,9 @@ public class PIIConfiguration implements ToXContentObject, Writeable {
             builder.startObject();
             builder.field(PATTERN.getPreferredName(), pattern);
             builder.field(MASK.getPreferredName(), mask);
+            builder.field(PRIORITY.getPreferredName(), priority);
+            builder.field(TRIGGERS.getPreferredName(), triggers);
+            builder.field(MAX_MATCH_LENGTH.getPreferredName(), maxMatchLength);
             builder.endObject();
             return builder;
         }
@@ -207,17 +332,296 @@ public class PIIConfiguration implements ToXContentObject, Writeable {
             return mask;
         }
         
+        public int getPriority() {
+            return priority;
+        }
+        
+        public String getTriggers() {
+            return triggers;
+        }
+        
+        public int getMaxMatchLength() {
+            return maxMatchLength;
+        }
+        
         @Override
         public boolean equals(Object o) {
             if (this == o) return true;
             if (o == null || getClass() != o.getClass()) return false;
             MaskingRule that = (MaskingRule) o;
-            return Objects.equals(pattern, that.pattern) && Objects.equals(mask, that.mask);
+            return priority == that.priority && maxMatchLength == that.maxMatchLength &&
+                   Objects.equals(pattern, that.pattern) && Objects.equals(mask, that.mask) &&
+                   Objects.equals(triggers, that.triggers);
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(pattern, mask, priority, triggers, maxMatchLength);
+        }
+    }
+    
+    /**
+     * Byte budgets that bound how much text is scanned per field and per document,
+     * and what happens to values that do not fit. A negative limit means unlimited.
+     */
+    public static class ScanLimits implements ToXContentObject, Writeable {
+        private static final ParseField MAX_FIELD_BYTES = new ParseField("max_field_bytes");
+        private static final ParseField MAX_DOCUMENT_BYTES = new ParseField("max_document_bytes");
+        private static final ParseField OVERSIZE_POLICY = new ParseField("oversize_policy");
+        private static final ParseField OVERSIZE_MASK = new ParseField("oversize_mask");
+        private static final ParseField SLOW_PATH_FIELD = new ParseField("slow_path_field");
+        
+        private static final String DEFAULT_OVERSIZE_MASK = "[TRUNCATED]";
+        private static final String DEFAULT_SLOW_PATH_FIELD = "pii_slow_path";
+        
+        public static final ScanLimits UNLIMITED = new ScanLimits(
+            -1, -1, OversizePolicy.SCAN_PREFIX, DEFAULT_OVERSIZE_MASK, DEFAULT_SLOW_PATH_FIELD);
+        
+        public static final ConstructingObjectParser<ScanLimits, Void> PARSER = new ConstructingObjectParser<>(
+            "scan_limits",
+            args -> new ScanLimits(
+                args[0] != null ? (Long) args[0] : -1,
+                args[1] != null ? (Long) args[1] : -1,
+                args[2] != null ? OversizePolicy.fromString((String) args[2]) : OversizePolicy.SCAN_PREFIX,
+                args[3] != null ? (String) args[3] : DEFAULT_OVERSIZE_MASK,
+                args[4] != null ? (String) args[4] : DEFAULT_SLOW_PATH_FIELD
+            )
+        );
+        
+        static {
+            PARSER.declareLong(ConstructingObjectParser.optionalConstructorArg(), MAX_FIELD_BYTES);
+            PARSER.declareLong(ConstructingObjectParser.optionalConstructorArg(), MAX_DOCUMENT_BYTES);
+            PARSER.declareString(ConstructingObjectParser.optionalConstructorArg(), OVERSIZE_POLICY);
+            PARSER.declareString(ConstructingObjectParser.optionalConstructorArg(), OVERSIZE_MASK);
+            PARSER.declareString(ConstructingObjectParser.optionalConstructorArg(), SLOW_PATH_FIELD);
+        }
+        
+        private final long maxFieldBytes;
+        private final long maxDocumentBytes;
+        private final OversizePolicy oversizePolicy;
+        private final String oversizeMask;
+        private final String slowPathField;
+        
+        public ScanLimits(long maxFieldBytes, long maxDocumentBytes, OversizePolicy oversizePolicy,
+                          String oversizeMask, String slowPathField) {
+            this.maxFieldBytes = maxFieldBytes;
+            this.maxDocumentBytes = maxDocumentBytes;
+            this.oversizePolicy = oversizePolicy;
+            this.oversizeMask = oversizeMask;
+            this.slowPathField = slowPathField;
+        }
+        
+        public ScanLimits(StreamInput in) throws IOException {
+            this.maxFieldBytes = in.readLong();
+            this.maxDocumentBytes = in.readLong();
+            this.oversizePolicy = in.readEnum(OversizePolicy.class);
+            this.oversizeMask = in.readString();
+            this.slowPathField = in.readString();
+        }
+        
+        @Override
+        public void writeTo(StreamOutput out) throws IOException {
+            out.writeLong(maxFieldBytes);
+            out.writeLong(maxDocumentBytes);
+            out.writeEnum(oversizePolicy);
+            out.writeString(oversizeMask);
+            out.writeString(slowPathField);
+        }
+        
+        public static ScanLimits fromXContent(XContentParser parser) throws IOException {
+            return PARSER.parse(parser, null);
+        }
+        
+        @Override
+        public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+            builder.startObject();
+            builder.field(MAX_FIELD_BYTES.getPreferredName(), maxFieldBytes);
+            builder.field(MAX_DOCUMENT_BYTES.getPreferredName(), maxDocumentBytes);
+            builder.field(OVERSIZE_POLICY.getPreferredName(), oversizePolicy.toString());
+            builder.field(OVERSIZE_MASK.getPreferredName(), oversizeMask);
+            builder.field(SLOW_PATH_FIELD.getPreferredName(), slowPathField);
+            builder.endObject();
+            return builder;
+        }
+        
+        public long getMaxFieldBytes() {
+            return maxFieldBytes;
+        }
+        
+        public long getMaxDocumentBytes() {
+            return maxDocumentBytes;
+        }
+        
+        public OversizePolicy getOversizePolicy() {
+            return oversizePolicy;
+        }
+        
+        public String getOversizeMask() {
+            return oversizeMask;
+        }
+        
+        public String getSlowPathField() {
+            return slowPathField;
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            ScanLimits that = (ScanLimits) o;
+            return maxFieldBytes == that.maxFieldBytes &&
+                   maxDocumentBytes == that.maxDocumentBytes &&
+                   oversizePolicy == that.oversizePolicy &&
+                   Objects.equals(oversizeMask, that.oversizeMask) &&
+                   Objects.equals(slowPathField, that.slowPathField);
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(maxFieldBytes, maxDocumentBytes, oversizePolicy, oversizeMask, slowPathField);
+        }
+        
+        /**
+         * What to do with a field value that exceeds the remaining scan budget
+         */
+        public enum OversizePolicy {
+            /** Scan the prefix that fits the budget and replace the rest with the oversize mask */
+            SCAN_PREFIX,
+            /** Replace the whole field with the oversize mask without scanning it */
+            MASK_FIELD,
+            /** Reject the document */
+            BLOCK,
+            /** Leave the field unscanned and record its path in the slow path field for a downstream pipeline */
+            ROUTE;
+            
+            public static OversizePolicy fromString(String value) {
+                return valueOf(value.toUpperCase(Locale.ROOT));
+            }
+            
+            @Override
+            public String toString() {
+                return name().toLowerCase(Locale.ROOT);
+            }
+        }
+    }
+    
+    /**
+     * Controls whether masking and audit work runs on the ingest thread or is offloaded to virtual threads
+     */
+    public static class OffloadSettings implements ToXContentObject, Writeable {
+        private static final ParseField MODE = new ParseField("mode");
+        private static final ParseField MAX_IN_FLIGHT = new ParseField("max_in_flight");
+        private static final ParseField MAX_QUEUED = new ParseField("max_queued");
+        
+        private static final int DEFAULT_MAX_IN_FLIGHT = 1000;
+        private static final int DEFAULT_MAX_QUEUED = 10000;
+        
+        public static final OffloadSettings INLINE = new OffloadSettings(Mode.INLINE, DEFAULT_MAX_IN_FLIGHT);
+        
+        public static final ConstructingObjectParser<OffloadSettings, Void> PARSER = new ConstructingObjectParser<>(
+            "offload",
+            args -> new OffloadSettings(
+                args[0] != null ? Mode.fromString((String) args[0]) : Mode.INLINE,
+                args[1] != null ? (Integer) args[1] : DEFAULT_MAX_IN_FLIGHT,
+                args[2] != null ? (Integer) args[2] : DEFAULT_MAX_QUEUED
+            )
+        );
+        
+        static {
+            PARSER.declareString(ConstructingObjectParser.optionalConstructorArg(), MODE);
+            PARSER.declareInt(ConstructingObjectParser.optionalConstructorArg(), MAX_IN_FLIGHT);
+            PARSER.declareInt(ConstructingObjectParser.optionalConstructorArg(), MAX_QUEUED);
+        }
+        
+        private final Mode mode;
+        private final int maxInFlight;
+        private final int maxQueued;
+        
+        public OffloadSettings(Mode mode, int maxInFlight) {
+            this(mode, maxInFlight, DEFAULT_MAX_QUEUED);
+        }
+        
+        public OffloadSettings(Mode mode, int maxInFlight, int maxQueued) {
+            if (maxInFlight < 1) {
+                throw new IllegalArgumentException("[max_in_flight] must be at least 1, got [" + maxInFlight + "]");
+            }
+            if (maxQueued < 0) {
+                throw new IllegalArgumentException("[max_queued] must not be negative, got [" + maxQueued + "]");
+            }
+            this.mode = mode;
+            this.maxInFlight = maxInFlight;
+            this.maxQueued = maxQueued;
+        }
+        
+        public OffloadSettings(StreamInput in) throws IOException {
+            this.mode = in.readEnum(Mode.class);
+            this.maxInFlight = in.readVInt();
+            this.maxQueued = in.readVInt();
+        }
+        
+        @Override
+        public void writeTo(StreamOutput out) throws IOException {
+            out.writeEnum(mode);
+            out.writeVInt(maxInFlight);
+            out.writeVInt(maxQueued);
+        }
+        
+        public static OffloadSettings fromXContent(XContentParser parser) throws IOException {
+            return PARSER.parse(parser, null);
+        }
+        
+        @Override
+        public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+            builder.startObject();
+            builder.field(MODE.getPreferredName(), mode.toString());
+            builder.field(MAX_IN_FLIGHT.getPreferredName(), maxInFlight);
+            builder.field(MAX_QUEUED.getPreferredName(), maxQueued);
+            builder.endObject();
+            return builder;
+        }
+        
+        public Mode getMode() {
+            return mode;
+        }
+        
+        public int getMaxInFlight() {
+            return maxInFlight;
+        }
+        
+        public int getMaxQueued() {
+            return maxQueued;
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            OffloadSettings that = (OffloadSettings) o;
+            return mode == that.mode && maxInFlight == that.maxInFlight && maxQueued == that.maxQueued;
         }
         
         @Override
         public int hashCode() {
-            return Objects.hash(pattern, mask);
+            return Objects.hash(mode, maxInFlight, maxQueued);
+        }
+        
+        /**
+         * Where masking work runs
+         */
+        public enum Mode {
+            /** On the ingest thread that executes the pipeline */
+            INLINE,
+            /** On a virtual thread, bounded by max_in_flight; excess documents wait in a queue of max_queued */
+            VIRTUAL_THREADS;
+            
+            public static Mode fromString(String value) {
+                return valueOf(value.toUpperCase(Locale.ROOT));
+            }
+            
+            @Override
+            public String toString() {
+                return name().toLowerCase(Locale.ROOT);
+            }
         }
     }
 }
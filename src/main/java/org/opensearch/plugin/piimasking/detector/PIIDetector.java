@@ -12,9 +12,14 @@ import org.apache.logging.log4j.Logger;
 import org.opensearch.plugin.piimasking.config.PIIConfiguration;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -25,18 +30,62 @@ public class PIIDetector {
     
     private static final Logger logger = LogManager.getLogger(PIIDetector.class);
     private final Map<String, Pattern> compiledPatterns;
+    private final Map<String, TriggerSet> triggerSets;
+    private final Set<String> triggerMismatchesReported = ConcurrentHashMap.newKeySet();
     private final PIIConfiguration configuration;
     
     public PIIDetector(PIIConfiguration configuration) {
         this.configuration = configuration;
         this.compiledPatterns = compilePatterns(configuration.getMaskingRules());
+        this.triggerSets = buildTriggerSets(configuration.getMaskingRules());
     }
     
     /**
-     * Compile regex patterns for efficient reuse
+     * Build the candidate prefilter for each rule that declares trigger characters,
+     * sharing one instance between rules with the same triggers
+     */
+    private Map<String, TriggerSet> buildTriggerSets(Map<String, PIIConfiguration.MaskingRule> rules) {
+        Map<String, TriggerSet> byTriggers = new HashMap<>();
+        Map<String, TriggerSet> sets = new HashMap<>();
+        for (Map.Entry<String, PIIConfiguration.MaskingRule> entry : rules.entrySet()) {
+            String triggers = entry.getValue().getTriggers();
+            if (triggers != null && !triggers.isEmpty()) {
+                if (!patternReferencesTriggers(entry.getValue().getPattern(), triggers)) {
+                    logger.warn("Pattern of rule [{}] does not reference any of its triggers [{}]; matches in text "
+                        + "without them are missed", entry.getKey(), triggers);
+                }
+                sets.put(entry.getKey(), byTriggers.computeIfAbsent(triggers, TriggerSet::new));
+            }
+        }
+        return sets;
+    }
+    
+    /**
+     * Rough static check that a pattern can match one of its triggers at all: a literal trigger
+     * character, or a digit or word class when the triggers include digits or letters. Rules whose
+     * matches omit the triggers at runtime are reported when such a match is seen.
+     */
+    public static boolean patternReferencesTriggers(String pattern, String triggers) {
+        for (int i = 0; i < triggers.length(); i++) {
+            char c = triggers.charAt(i);
+            if (pattern.indexOf(c) >= 0) {
+                return true;
+            }
+            if (Character.isLetterOrDigit(c) && (pattern.contains("\\w") || pattern.contains("\\p{"))) {
+                return true;
+            }
+            if (Character.isDigit(c) && pattern.contains("\\d")) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Compile regex patterns for efficient reuse, keyed in a stable order so ties resolve deterministically
      */
     private Map<String, Pattern> compilePatterns(Map<String, PIIConfiguration.MaskingRule> rules) {
-        Map<String, Pattern> patterns = new HashMap<>();
+        Map<String, Pattern> patterns = new TreeMap<>();
         for (Map.Entry<String, PIIConfiguration.MaskingRule> entry : rules.entrySet()) {
             try {
                 patterns.put(entry.getKey(), Pattern.compile(entry.getValue().getPattern()));
@@ -49,38 +98,167 @@ public class PIIDetector {
     }
     
     /**
-     * Detect and mask PII in the given text
+     * Detect and mask PII in the given text.
+     * 
+     * All rules are matched against the original text, overlapping candidates are resolved
+     * according to the configured {@link PIIConfiguration.OverlapStrategy}, and the surviving
+     * spans are replaced in a single pass. Mask strings are therefore never rescanned.
+     * When nothing is found the input string itself is returned, without copying.
      */
     public PIIMaskingResult detectAndMask(String text) {
         if (text == null || text.isEmpty()) {
             return new PIIMaskingResult(text, List.of());
         }
         
-        String maskedText = text;
-        List<PIIDetection> detections = new ArrayList<>();
+        List<MatchSpan> spans = resolveOverlaps(collectCandidates(text));
+        if (spans.isEmpty()) {
+            return new PIIMaskingResult(text, List.of());
+        }
+        
+        // Size the output exactly so the buffer is allocated once and never grown
+        int maskedLength = text.length();
+        for (MatchSpan span : spans) {
+            maskedLength += span.mask.length() - (span.end - span.start);
+        }
+        
+        StringBuilder sb = new StringBuilder(maskedLength);
+        List<PIIDetection> detections = new ArrayList<>(spans.size());
+        int last = 0;
+        for (MatchSpan span : spans) {
+            String originalValue = text.substring(span.start, span.end);
+            detections.add(new PIIDetection(span.type, originalValue, span.mask));
+            sb.append(text, last, span.start).append(span.mask);
+            last = span.end;
+        }
+        sb.append(text, last, text.length());
         
+        return new PIIMaskingResult(sb.toString(), detections);
+    }
+    
+    /**
+     * Run every rule against the original text and collect all non-empty matches.
+     * Rules whose trigger characters do not occur in the text are skipped without running the regex.
+     */
+    private List<MatchSpan> collectCandidates(String text) {
+        List<MatchSpan> candidates = new ArrayList<>();
+        Map<TriggerSet, int[]> triggerRuns = new HashMap<>();
         for (Map.Entry<String, Pattern> entry : compiledPatterns.entrySet()) {
-            String piiType = entry.getKey();
-            Pattern pattern = entry.getValue();
-            PIIConfiguration.MaskingRule rule = configuration.getMaskingRules().get(piiType);
-            
-            if (rule == null) {
+            scanRule(entry.getKey(), entry.getValue(), text, triggerRuns, candidates);
+        }
+        return candidates;
+    }
+    
+    /**
+     * Match one rule against the text, adding its matches to the candidates if given.
+     * 
+     * A rule with triggers only runs if the text contains one of them. If it also declares a maximum
+     * match length, the regex is limited to windows that extend that far on either side of each run of
+     * trigger characters, since any match must lie within such a window. Bounds are transparent so
+     * boundaries and lookarounds still see the surrounding text.
+     * 
+     * @return whether the rule matched; without candidates the scan stops at the first match
+     */
+    private boolean scanRule(String piiType, Pattern pattern, String text, Map<TriggerSet, int[]> triggerRuns,
+                             List<MatchSpan> candidates) {
+        PIIConfiguration.MaskingRule rule = configuration.getMaskingRules().get(piiType);
+        if (rule == null) {
+            return false;
+        }
+        
+        Matcher matcher = pattern.matcher(text);
+        TriggerSet triggerSet = triggerSets.get(piiType);
+        if (triggerSet == null) {
+            return findMatches(matcher, text, piiType, rule, null, candidates);
+        }
+        
+        // Trigger runs are computed once per text for all rules sharing the trigger set
+        int[] runs = triggerRuns.computeIfAbsent(triggerSet, t -> t.runsIn(text));
+        if (runs.length == 0) {
+            return false;
+        }
+        int maxMatchLength = rule.getMaxMatchLength();
+        if (maxMatchLength < 0) {
+            return findMatches(matcher, text, piiType, rule, triggerSet, candidates);
+        }
+        
+        matcher.useTransparentBounds(true).useAnchoringBounds(false);
+        boolean found = false;
+        int i = 0;
+        while (i < runs.length) {
+            int windowStart = Math.max(0, runs[i] - (maxMatchLength - 1));
+            int windowEnd = Math.min(text.length(), runs[i + 1] + (maxMatchLength - 1));
+            i += 2;
+            // Merge windows that touch so no match is found twice or cut in half
+            while (i < runs.length && runs[i] - (maxMatchLength - 1) <= windowEnd) {
+                windowEnd = Math.min(text.length(), runs[i + 1] + (maxMatchLength - 1));
+                i += 2;
+            }
+            matcher.region(windowStart, windowEnd);
+            found |= findMatches(matcher, text, piiType, rule, triggerSet, candidates);
+            if (found && candidates == null) {
+                return true;
+            }
+        }
+        return found;
+    }
+    
+    private boolean findMatches(Matcher matcher, String text, String piiType, PIIConfiguration.MaskingRule rule,
+                                TriggerSet triggerSet, List<MatchSpan> candidates) {
+        boolean found = false;
+        while (matcher.find()) {
+            if (matcher.end() == matcher.start()) {
                 continue;
             }
-            
-            Matcher matcher = pattern.matcher(maskedText);
-            StringBuffer sb = new StringBuffer();
-            
-            while (matcher.find()) {
-                String originalValue = matcher.group();
-                detections.add(new PIIDetection(piiType, originalValue, rule.getMask()));
-                matcher.appendReplacement(sb, Matcher.quoteReplacement(rule.getMask()));
+            if (triggerSet != null && !triggerSet.foundIn(text, matcher.start(), matcher.end())
+                && triggerMismatchesReported.add(piiType)) {
+                // Proof that the rule also matches text without triggers, which the gate would skip
+                logger.warn("Rule [{}] matched text containing none of its triggers [{}]; matches in text "
+                    + "without them are missed. Fix or remove its triggers.", piiType, rule.getTriggers());
+            }
+            if (candidates == null) {
+                return true;
             }
-            matcher.appendTail(sb);
-            maskedText = sb.toString();
+            candidates.add(new MatchSpan(matcher.start(), matcher.end(), piiType, rule.getMask(), rule.getPriority()));
+            found = true;
+        }
+        return found;
+    }
+    
+    /**
+     * Greedily accept candidates in strategy order, dropping any that overlap an accepted span.
+     * Returns the accepted spans sorted by position.
+     */
+    private List<MatchSpan> resolveOverlaps(List<MatchSpan> candidates) {
+        if (candidates.size() <= 1) {
+            return candidates;
         }
         
-        return new PIIMaskingResult(maskedText, detections);
+        candidates.sort(comparatorFor(configuration.getOverlapStrategy()));
+        
+        TreeMap<Integer, MatchSpan> accepted = new TreeMap<>();
+        for (MatchSpan candidate : candidates) {
+            Map.Entry<Integer, MatchSpan> before = accepted.floorEntry(candidate.start);
+            if (before != null && before.getValue().end > candidate.start) {
+                continue;
+            }
+            Map.Entry<Integer, MatchSpan> after = accepted.ceilingEntry(candidate.start);
+            if (after != null && after.getKey() < candidate.end) {
+                continue;
+            }
+            accepted.put(candidate.start, candidate);
+        }
+        return new ArrayList<>(accepted.values());
+    }
+    
+    private static Comparator<MatchSpan> comparatorFor(PIIConfiguration.OverlapStrategy strategy) {
+        Comparator<MatchSpan> byPriority = Comparator.comparingInt((MatchSpan s) -> s.priority).reversed();
+        Comparator<MatchSpan> byLength = Comparator.comparingInt((MatchSpan s) -> s.end - s.start).reversed();
+        Comparator<MatchSpan> primary = strategy == PIIConfiguration.OverlapStrategy.LONGEST_MATCH
+            ? byLength.thenComparing(byPriority)
+            : byPriority.thenComparing(byLength);
+        return primary
+            .thenComparingInt(s -> s.start)
+            .thenComparing(s -> s.type);
     }
     
     /**
@@ -91,14 +269,105 @@ public class PIIDetector {
             return false;
         }
         
-        for (Pattern pattern : compiledPatterns.values()) {
-            if (pattern.matcher(text).find()) {
+        Map<TriggerSet, int[]> triggerRuns = new HashMap<>();
+        for (Map.Entry<String, Pattern> entry : compiledPatterns.entrySet()) {
+            if (scanRule(entry.getKey(), entry.getValue(), text, triggerRuns, null)) {
                 return true;
             }
         }
         return false;
     }
     
+    /**
+     * Characters of which every match of a rule contains at least one
+     */
+    private static final class TriggerSet {
+        private static final int[] NO_RUNS = new int[0];
+        
+        private final String chars;
+        private final boolean[] ascii = new boolean[128];
+        
+        private TriggerSet(String chars) {
+            this.chars = chars;
+            for (int i = 0; i < chars.length(); i++) {
+                char c = chars.charAt(i);
+                if (c < 128) {
+                    ascii[c] = true;
+                }
+            }
+        }
+        
+        private boolean contains(char c) {
+            return c < 128 ? ascii[c] : chars.indexOf(c) >= 0;
+        }
+        
+        private int indexIn(String text, int from) {
+            if (chars.length() == 1) {
+                // String.indexOf is a vectorized intrinsic on HotSpot
+                return text.indexOf(chars.charAt(0), from);
+            }
+            for (int i = from; i < text.length(); i++) {
+                if (contains(text.charAt(i))) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        
+        /**
+         * Runs of consecutive trigger characters in the text, as flat start/end pairs
+         */
+        private int[] runsIn(String text) {
+            int start = indexIn(text, 0);
+            if (start < 0) {
+                return NO_RUNS;
+            }
+            int[] runs = new int[8];
+            int count = 0;
+            while (start >= 0) {
+                int end = start + 1;
+                while (end < text.length() && contains(text.charAt(end))) {
+                    end++;
+                }
+                if (count == runs.length) {
+                    runs = Arrays.copyOf(runs, count * 2);
+                }
+                runs[count++] = start;
+                runs[count++] = end;
+                start = indexIn(text, end);
+            }
+            return Arrays.copyOf(runs, count);
+        }
+        
+        private boolean foundIn(String text, int start, int end) {
+            for (int i = start; i < end; i++) {
+                if (contains(text.charAt(i))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+    
+    /**
+     * Candidate match of a single rule against the original text
+     */
+    private static final class MatchSpan {
+        private final int start;
+        private final int end;
+        private final String type;
+        private final String mask;
+        private final int priority;
+        
+        private MatchSpan(int start, int end, String type, String mask, int priority) {
+            this.start = start;
+            this.end = end;
+            this.type = type;
+            this.mask = mask;
+            this.priority = priority;
+        }
+    }
+    
     /**
      * Result of PII detection and masking operation
      */
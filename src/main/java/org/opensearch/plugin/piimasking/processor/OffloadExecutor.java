@@ -0,0 +1,132 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.plugin.piimasking.processor;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.Closeable;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs PII masking work on virtual threads so ingest worker threads are released immediately.
+ * The number of in-flight tasks is bounded; submissions beyond the bound wait in a bounded queue
+ * and are picked up by the virtual threads as they finish. Only when the queue is also full are
+ * submissions rejected, so callers can push back on the client instead of queueing without limit.
+ */
+public class OffloadExecutor implements Closeable {
+
+    private static final Logger logger = LogManager.getLogger(OffloadExecutor.class);
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Deque<Runnable> queue = new ArrayDeque<>();
+    private final LongAdder rejected = new LongAdder();
+    private int inFlight;
+
+    /**
+     * Run the task if fewer than maxInFlight tasks are running, otherwise queue it if fewer than
+     * maxQueued tasks are waiting
+     *
+     * @return false if the task was rejected
+     */
+    public boolean trySubmit(Runnable task, int maxInFlight, int maxQueued) {
+        synchronized (this) {
+            if (inFlight >= maxInFlight) {
+                if (queue.size() >= maxQueued) {
+                    rejected.increment();
+                    return false;
+                }
+                queue.addLast(task);
+                return true;
+            }
+            inFlight++;
+        }
+        try {
+            executor.execute(() -> runAndDrain(task));
+        } catch (RuntimeException e) {
+            // Executor is shutting down
+            synchronized (this) {
+                inFlight--;
+            }
+            rejected.increment();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Run the task, then keep taking queued tasks on the same virtual thread until the queue is empty
+     */
+    private void runAndDrain(Runnable task) {
+        Runnable next = task;
+        while (next != null) {
+            boolean completed = false;
+            try {
+                next.run();
+                completed = true;
+            } catch (RuntimeException e) {
+                logger.warn("Offloaded PII masking task failed", e);
+                completed = true;
+            } finally {
+                if (!completed) {
+                    // An error is ending this thread; hand its slot on so neither it nor the queue is lost
+                    handOff();
+                }
+            }
+            synchronized (this) {
+                next = queue.pollFirst();
+                if (next == null) {
+                    inFlight--;
+                }
+            }
+        }
+    }
+    
+    /**
+     * Release the slot of a thread that is dying, or keep it to drain the queue on a new thread
+     */
+    private void handOff() {
+        Runnable next;
+        synchronized (this) {
+            next = queue.pollFirst();
+            if (next == null) {
+                inFlight--;
+                return;
+            }
+        }
+        try {
+            executor.execute(() -> runAndDrain(next));
+        } catch (RuntimeException e) {
+            // Executor is shutting down; queued tasks are dropped with it
+            synchronized (this) {
+                inFlight--;
+            }
+        }
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    public synchronized int getQueued() {
+        return queue.size();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+}
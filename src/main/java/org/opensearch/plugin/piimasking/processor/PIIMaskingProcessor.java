@@ -7,6 +7,9 @@
  */
 package org.opensearch.plugin.piimasking.processor;
 
+import org.opensearch.OpenSearchException;
+import org.opensearch.common.util.concurrent.ThreadContext;
+import org.opensearch.core.concurrency.OpenSearchRejectedExecutionException;
 import org.opensearch.ingest.AbstractProcessor;
 import org.opensearch.ingest.IngestDocument;
 import org.opensearch.ingest.Processor;
@@ -16,7 +19,9 @@ import org.opensearch.plugin.piimasking.detector.PIIDetector;
 
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.function.BiConsumer;
 
 /**
  * Ingest processor that detects and masks PII in documents
@@ -26,38 +31,164 @@ public class PIIMaskingProcessor extends AbstractProcessor {
     public static final String TYPE = "pii-masking";
     
     private static PIIConfiguration globalConfiguration = getDefaultConfiguration();
+    private static final ScanBudgetStats scanBudgetStats = new ScanBudgetStats();
+    private static final String DIGITS = "0123456789";
     private final PIIDetector detector;
     private final AuditLogger auditLogger;
+    private final OffloadExecutor offloadExecutor;
+    private final ThreadContext threadContext;
     
     protected PIIMaskingProcessor(String tag, String description, PIIConfiguration configuration) {
+        this(tag, description, configuration, null, null);
+    }
+    
+    protected PIIMaskingProcessor(String tag, String description, PIIConfiguration configuration,
+                                  OffloadExecutor offloadExecutor, ThreadContext threadContext) {
         super(tag, description);
         this.detector = new PIIDetector(configuration);
         this.auditLogger = new AuditLogger(configuration);
+        this.offloadExecutor = offloadExecutor;
+        this.threadContext = threadContext;
+    }
+    
+    /**
+     * Runs masking and audit logging on a virtual thread when offloading is enabled, releasing the
+     * ingest thread immediately. Documents beyond the in-flight bound wait in a bounded queue, so a
+     * large bulk request is absorbed; only when the queue is full are documents rejected with a 429.
+     */
+    @Override
+    public void execute(IngestDocument ingestDocument, BiConsumer<IngestDocument, Exception> handler) {
+        PIIConfiguration.OffloadSettings offload = globalConfiguration.getOffloadSettings();
+        if (offloadExecutor == null || offload.getMode() == PIIConfiguration.OffloadSettings.Mode.INLINE
+            || !globalConfiguration.isEnabled()) {
+            executeInline(ingestDocument, handler);
+            return;
+        }
+        
+        Runnable task = () -> executeInline(ingestDocument, handler);
+        if (threadContext != null) {
+            task = threadContext.preserveContext(task);
+        }
+        if (!offloadExecutor.trySubmit(task, offload.getMaxInFlight(), offload.getMaxQueued())) {
+            handler.accept(null, new OpenSearchRejectedExecutionException(
+                "PII masking rejected: [" + offload.getMaxInFlight() + "] documents in flight and ["
+                    + offload.getMaxQueued() + "] queued"));
+        }
+    }
+    
+    private void executeInline(IngestDocument ingestDocument, BiConsumer<IngestDocument, Exception> handler) {
+        IngestDocument result;
+        try {
+            result = execute(ingestDocument);
+        } catch (Exception e) {
+            handler.accept(null, e);
+            return;
+        } catch (Error e) {
+            // Complete the document before the error propagates, or its bulk item would never finish
+            handler.accept(null, new OpenSearchException("PII masking failed", e));
+            throw e;
+        }
+        handler.accept(result, null);
     }
     
     @Override
     public IngestDocument execute(IngestDocument ingestDocument) throws Exception {
+        maskFields(ingestDocument);
+        return ingestDocument;
+    }
+    
+    /**
+     * Detect and mask PII in the configured fields of the document in place
+     *
+     * @return true if the document was modified
+     */
+    public boolean maskFields(IngestDocument ingestDocument) {
+        return maskFields(ingestDocument, false);
+    }
+    
+    /**
+     * Detect and mask PII in the configured fields of the document in place.
+     * 
+     * When re-masking a stored document, strict mode does not block it, since masking is what fixes it.
+     * Oversized values are only replaced under the mask_field policy; scan_prefix and route would
+     * truncate or tag stored content on every pass, so under them, as under block, the document is
+     * rejected. Either way a second pass over the result changes nothing.
+     *
+     * @param remask whether the document is already stored rather than being ingested
+     * @return true if the document was modified
+     * @throws IllegalArgumentException if the document is blocked
+     */
+    public boolean maskFields(IngestDocument ingestDocument, boolean remask) {
         if (!globalConfiguration.isEnabled()) {
-            return ingestDocument;
+            return false;
         }
         
+        boolean modified = false;
         String documentId = ingestDocument.getSourceAndMetadata().get("_id") != null ? 
             ingestDocument.getSourceAndMetadata().get("_id").toString() : "unknown";
         String indexName = ingestDocument.getSourceAndMetadata().get("_index") != null ?
             ingestDocument.getSourceAndMetadata().get("_index").toString() : "unknown";
         
+        PIIConfiguration.ScanLimits limits = globalConfiguration.getScanLimits();
+        long fieldBudget = limits.getMaxFieldBytes() < 0 ? Long.MAX_VALUE : limits.getMaxFieldBytes();
+        long documentBudget = limits.getMaxDocumentBytes() < 0 ? Long.MAX_VALUE : limits.getMaxDocumentBytes();
+        
         // Process configured fields for PII detection and masking
         for (String fieldPath : globalConfiguration.getFieldsToCheck()) {
             if (ingestDocument.hasField(fieldPath)) {
                 Object fieldValue = ingestDocument.getFieldValue(fieldPath, Object.class);
                 if (fieldValue instanceof String) {
                     String text = (String) fieldValue;
+                    String scanText = text;
+                    String oversizeSuffix = null;
+                    
+                    // Enforce the per-field and per-document scan budgets
+                    long budget = Math.min(fieldBudget, documentBudget);
+                    long textBytes = budget == Long.MAX_VALUE ? 0 : utf8Length(text, budget);
+                    if (textBytes > budget) {
+                        PIIConfiguration.ScanLimits.OversizePolicy policy = limits.getOversizePolicy();
+                        scanBudgetStats.recordOversized(fieldBudget <= documentBudget, policy);
+                        if (remask && policy != PIIConfiguration.ScanLimits.OversizePolicy.MASK_FIELD) {
+                            throw new IllegalArgumentException(String.format(Locale.ROOT,
+                                "Field [%s] exceeds the PII scan budget of [%d] bytes and cannot be re-masked "
+                                    + "under oversize policy [%s]. Document skipped.", fieldPath, budget, policy));
+                        }
+                        switch (policy) {
+                            case BLOCK:
+                                throw new IllegalArgumentException(String.format(Locale.ROOT,
+                                    "Field [%s] exceeds the PII scan budget of [%d] bytes. Document blocked.",
+                                    fieldPath, budget));
+                            case ROUTE:
+                                if (globalConfiguration.isStrictMode()) {
+                                    // An unscanned value may contain PII, which strict mode must not let through
+                                    throw new IllegalArgumentException(String.format(Locale.ROOT,
+                                        "Field [%s] exceeds the PII scan budget of [%d] bytes and cannot be "
+                                            + "routed unscanned in strict mode. Document blocked.", fieldPath, budget));
+                                }
+                                ingestDocument.appendFieldValue(limits.getSlowPathField(), fieldPath);
+                                modified = true;
+                                continue;
+                            case MASK_FIELD:
+                                ingestDocument.setFieldValue(fieldPath, limits.getOversizeMask());
+                                modified = true;
+                                // Charge the mask as a later pass would when scanning it
+                                documentBudget = Math.max(0, documentBudget 
+                                    - utf8Length(limits.getOversizeMask(), Long.MAX_VALUE));
+                                continue;
+                            case SCAN_PREFIX:
+                            default:
+                                scanText = text.substring(0, tokenBoundaryBefore(text, utf8PrefixEnd(text, budget)));
+                                oversizeSuffix = limits.getOversizeMask();
+                                textBytes = budget;
+                        }
+                    }
+                    documentBudget -= textBytes;
                     
                     // Detect and mask PII
-                    PIIDetector.PIIMaskingResult result = detector.detectAndMask(text);
+                    PIIDetector.PIIMaskingResult result = detector.detectAndMask(scanText);
                     
                     // If strict mode and PII found, throw exception to block document
-                    if (globalConfiguration.isStrictMode() && result.hasPII()) {
+                    if (globalConfiguration.isStrictMode() && result.hasPII() && !remask) {
                         auditLogger.logBlockedDocument(indexName, documentId, 
                             result.getDetections().stream()
                                 .map(PIIDetector.PIIDetection::getType)
@@ -67,8 +198,13 @@ public class PIIMaskingProcessor extends AbstractProcessor {
                     }
                     
                     // Update document with masked content
-                    if (result.hasPII()) {
-                        ingestDocument.setFieldValue(fieldPath, result.getMaskedText());
+                    if (result.hasPII() || oversizeSuffix != null) {
+                        String maskedText = oversizeSuffix != null ? 
+                            result.getMaskedText() + oversizeSuffix : result.getMaskedText();
+                        if (!maskedText.equals(text)) {
+                            ingestDocument.setFieldValue(fieldPath, maskedText);
+                            modified = true;
+                        }
                         
                         // Log the masking activity
                         auditLogger.logMaskingActivity(indexName, documentId, fieldPath, 
@@ -78,7 +214,7 @@ public class PIIMaskingProcessor extends AbstractProcessor {
             }
         }
         
-        return ingestDocument;
+        return modified;
     }
     
     @Override
@@ -94,19 +230,116 @@ public class PIIMaskingProcessor extends AbstractProcessor {
         return globalConfiguration;
     }
     
+    public static ScanBudgetStats getScanBudgetStats() {
+        return scanBudgetStats;
+    }
+    
+    /**
+     * UTF-8 encoded length of the text, counting only until the limit is exceeded
+     */
+    static long utf8Length(String text, long limit) {
+        if (text.length() > limit) {
+            // Every char encodes to at least one byte
+            return text.length();
+        }
+        long bytes = 0;
+        for (int i = 0; i < text.length() && bytes <= limit; i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                bytes += 1;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < text.length() 
+                       && Character.isLowSurrogate(text.charAt(i + 1))) {
+                bytes += 4;
+                i++;
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+    
+    /**
+     * Move a cut back to the start of the token it splits, so a partial value that continues
+     * past the cut (e.g. the first digits of an SSN) is truncated rather than kept unmasked.
+     * Digit groups separated only by spaces, as in card numbers, count as one token.
+     */
+    static int tokenBoundaryBefore(String text, int cut) {
+        int i = cut;
+        while (i > 0 && i < text.length()) {
+            if (!Character.isWhitespace(text.charAt(i - 1)) && !Character.isWhitespace(text.charAt(i))) {
+                i--;
+                continue;
+            }
+            int before = i;
+            while (before > 0 && text.charAt(before - 1) == ' ') {
+                before--;
+            }
+            int after = i;
+            while (after < text.length() && text.charAt(after) == ' ') {
+                after++;
+            }
+            if (before == 0 || after == text.length() 
+                || !isAsciiDigit(text.charAt(before - 1)) || !isAsciiDigit(text.charAt(after))) {
+                break;
+            }
+            i = before - 1;
+        }
+        return i;
+    }
+    
+    private static boolean isAsciiDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+    
+    /**
+     * End index of the longest prefix whose UTF-8 encoding fits in the given number of bytes,
+     * never splitting a surrogate pair
+     */
+    static int utf8PrefixEnd(String text, long maxBytes) {
+        long bytes = 0;
+        int i = 0;
+        while (i < text.length()) {
+            char c = text.charAt(i);
+            int charBytes;
+            int charCount = 1;
+            if (c < 0x80) {
+                charBytes = 1;
+            } else if (c < 0x800) {
+                charBytes = 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < text.length() 
+                       && Character.isLowSurrogate(text.charAt(i + 1))) {
+                charBytes = 4;
+                charCount = 2;
+            } else {
+                charBytes = 3;
+            }
+            if (bytes + charBytes > maxBytes) {
+                break;
+            }
+            bytes += charBytes;
+            i += charCount;
+        }
+        return i;
+    }
+    
     /**
-     * Default configuration with common PII patterns
+     * Default configuration with common PII patterns.
+     * Priorities let the narrow SSN and phone rules win over the broad credit card rule when they overlap.
+     * Triggers let text without any '@' or digit skip the corresponding regexes entirely, and the
+     * fixed-length SSN and phone rules only scan windows around digit runs.
      */
     private static PIIConfiguration getDefaultConfiguration() {
         Map<String, PIIConfiguration.MaskingRule> defaultRules = new HashMap<>();
         defaultRules.put("email", new PIIConfiguration.MaskingRule(
-            "[a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,}", "****@example.com"));
+            "[a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,}", "****@example.com", 40, "@"));
         defaultRules.put("ssn", new PIIConfiguration.MaskingRule(
-            "\\b\\d{3}-\\d{2}-\\d{4}\\b", "***-**-****"));
+            "\\b\\d{3}-\\d{2}-\\d{4}\\b", "***-**-****", 30, DIGITS, 11));
         defaultRules.put("credit_card", new PIIConfiguration.MaskingRule(
-            "\\b(?:\\d[ -]*?){13,16}\\b", "****-****-****-****"));
+            "\\b(?:\\d[ -]*?){13,16}\\b", "****-****-****-****", 10, DIGITS));
         defaultRules.put("phone", new PIIConfiguration.MaskingRule(
-            "\\b\\d{3}-\\d{3}-\\d{4}\\b", "***-***-****"));
+            "\\b\\d{3}-\\d{3}-\\d{4}\\b", "***-***-****", 20, DIGITS, 12));
         
         return new PIIConfiguration(
             true, // enabled
@@ -123,15 +356,23 @@ public class PIIMaskingProcessor extends AbstractProcessor {
     public static final class Factory implements Processor.Factory {
         
         private final Processor.Parameters parameters;
+        private final OffloadExecutor offloadExecutor;
         
         public Factory(Processor.Parameters parameters) {
+            this(parameters, null);
+        }
+        
+        public Factory(Processor.Parameters parameters, OffloadExecutor offloadExecutor) {
             this.parameters = parameters;
+            this.offloadExecutor = offloadExecutor;
         }
         
         @Override
         public Processor create(Map<String, Processor.Factory> registry, String processorTag,
                                String description, Map<String, Object> config) throws Exception {
-            return new PIIMaskingProcessor(processorTag, description, globalConfiguration);
+            ThreadContext threadContext = parameters != null ? parameters.threadContext : null;
+            return new PIIMaskingProcessor(processorTag, description, globalConfiguration, 
+                                           offloadExecutor, threadContext);
         }
     }
 }
@@ -0,0 +1,58 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.plugin.piimasking.processor;
+
+import org.opensearch.plugin.piimasking.config.PIIConfiguration;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters for how often the per-field and per-document scan budgets are hit
+ * and which oversize policy was applied
+ */
+public class ScanBudgetStats {
+
+    private final LongAdder fieldBudgetExceeded = new LongAdder();
+    private final LongAdder documentBudgetExceeded = new LongAdder();
+    private final Map<PIIConfiguration.ScanLimits.OversizePolicy, LongAdder> policyApplied =
+        new EnumMap<>(PIIConfiguration.ScanLimits.OversizePolicy.class);
+
+    public ScanBudgetStats() {
+        for (PIIConfiguration.ScanLimits.OversizePolicy policy : PIIConfiguration.ScanLimits.OversizePolicy.values()) {
+            policyApplied.put(policy, new LongAdder());
+        }
+    }
+
+    /**
+     * Record an oversized field value
+     *
+     * @param fieldBudget true if the per-field budget was the binding limit, false for the per-document budget
+     */
+    void recordOversized(boolean fieldBudget, PIIConfiguration.ScanLimits.OversizePolicy policy) {
+        if (fieldBudget) {
+            fieldBudgetExceeded.increment();
+        } else {
+            documentBudgetExceeded.increment();
+        }
+        policyApplied.get(policy).increment();
+    }
+
+    public long getFieldBudgetExceeded() {
+        return fieldBudgetExceeded.sum();
+    }
+
+    public long getDocumentBudgetExceeded() {
+        return documentBudgetExceeded.sum();
+    }
+
+    public long getPolicyApplied(PIIConfiguration.ScanLimits.OversizePolicy policy) {
+        return policyApplied.get(policy).sum();
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.plugin.piimasking.remask;
+
+import org.opensearch.ExceptionsHelper;
+import org.opensearch.ResourceNotFoundException;
+import org.opensearch.action.admin.cluster.node.tasks.get.GetTaskResponse;
+import org.opensearch.action.bulk.BulkItemResponse;
+import org.opensearch.action.bulk.BulkRequest;
+import org.opensearch.action.bulk.BulkResponse;
+import org.opensearch.action.get.GetRequest;
+import org.opensearch.action.get.GetResponse;
+import org.opensearch.action.index.IndexRequest;
+import org.opensearch.action.search.ClearScrollRequest;
+import org.opensearch.action.search.SearchRequest;
+import org.opensearch.action.search.SearchResponse;
+import org.opensearch.action.search.SearchScrollRequest;
+import org.opensearch.common.document.DocumentField;
+import org.opensearch.common.unit.TimeValue;
+import org.opensearch.common.util.concurrent.ThreadContext;
+import org.opensearch.common.xcontent.XContentFactory;
+import org.opensearch.core.rest.RestStatus;
+import org.opensearch.core.xcontent.ToXContent;
+import org.opensearch.index.IndexNotFoundException;
+import org.opensearch.index.engine.VersionConflictEngineException;
+import org.opensearch.search.SearchHit;
+import org.opensearch.search.builder.SearchSourceBuilder;
+import org.opensearch.search.slice.SliceBuilder;
+import org.opensearch.transport.client.Client;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link RemaskClient} backed by the node client.
+ *
+ * Reads and writes of the re-masked index run in the thread context of the caller that started the
+ * job, so they are authorized as that user. The checkpoint index is a system index; it is accessed
+ * with the context stashed, as the plugin rather than the user.
+ */
+class NodeRemaskClient implements RemaskClient {
+
+    private final Client client;
+    private final ThreadContext threadContext;
+
+    NodeRemaskClient(Client client, ThreadContext threadContext) {
+        this.client = client;
+        this.threadContext = threadContext;
+    }
+
+    @Override
+    public ScrollPage startScroll(String index, int sliceId, int slices, int batchSize, TimeValue keepAlive) {
+        SearchSourceBuilder source = new SearchSourceBuilder()
+            .size(batchSize)
+            .sort("_doc")
+            .seqNoAndPrimaryTerm(true);
+        if (slices > 1) {
+            source.slice(new SliceBuilder(sliceId, slices));
+        }
+        SearchRequest searchRequest = new SearchRequest(index)
+            .source(source)
+            .scroll(keepAlive);
+        return toPage(client.search(searchRequest).actionGet());
+    }
+
+    @Override
+    public ScrollPage continueScroll(String scrollId, TimeValue keepAlive) {
+        return toPage(client.searchScroll(new SearchScrollRequest(scrollId).scroll(keepAlive)).actionGet());
+    }
+
+    private static ScrollPage toPage(SearchResponse response) {
+        SearchHit[] hits = response.getHits().getHits();
+        List<StoredDocument> documents = new ArrayList<>(hits.length);
+        for (SearchHit hit : hits) {
+            DocumentField routing = hit.field("_routing");
+            documents.add(new StoredDocument(hit.getIndex(), hit.getId(),
+                                             routing != null ? routing.getValue().toString() : null,
+                                             hit.getSeqNo(), hit.getPrimaryTerm(), hit.getSourceAsMap()));
+        }
+        return new ScrollPage(response.getScrollId(), documents);
+    }
+
+    @Override
+    public void clearScroll(String scrollId) {
+        ClearScrollRequest clearScrollRequest = new ClearScrollRequest();
+        clearScrollRequest.addScrollId(scrollId);
+        client.clearScroll(clearScrollRequest).actionGet();
+    }
+
+    @Override
+    public List<WriteResult> write(List<StoredDocument> documents) {
+        BulkRequest bulkRequest = new BulkRequest();
+        for (StoredDocument document : documents) {
+            bulkRequest.add(new IndexRequest(document.getIndex())
+                .id(document.getId())
+                .routing(document.getRouting())
+                .source(document.getSource())
+                .setIfSeqNo(document.getSeqNo())
+                .setIfPrimaryTerm(document.getPrimaryTerm()));
+        }
+
+        BulkResponse bulkResponse = client.bulk(bulkRequest).actionGet();
+        List<WriteResult> results = new ArrayList<>(documents.size());
+        for (BulkItemResponse item : bulkResponse.getItems()) {
+            if (!item.isFailed()) {
+                results.add(WriteResult.UPDATED);
+            } else if (item.getFailure().getStatus() == RestStatus.CONFLICT) {
+                results.add(WriteResult.CONFLICT);
+            } else {
+                results.add(WriteResult.FAILED);
+            }
+        }
+        return results;
+    }
+
+    @Override
+    public StoredCheckpoint getCheckpoint(String jobId) {
+        try (ThreadContext.StoredContext ignored = threadContext.stashContext()) {
+            GetResponse response = client.get(new GetRequest(RemaskCheckpoint.INDEX_NAME, jobId)).actionGet();
+            if (!response.isExists()) {
+                return null;
+            }
+            return new StoredCheckpoint(RemaskCheckpoint.fromSourceMap(response.getSourceAsMap()),
+                                        response.getSeqNo(), response.getPrimaryTerm());
+        } catch (IndexNotFoundException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public boolean createCheckpoint(RemaskCheckpoint checkpoint) {
+        return indexCheckpoint(checkpoint, checkpointRequest(checkpoint).create(true));
+    }
+
+    @Override
+    public boolean replaceCheckpoint(RemaskCheckpoint checkpoint, long seqNo, long primaryTerm) {
+        return indexCheckpoint(checkpoint, checkpointRequest(checkpoint).setIfSeqNo(seqNo).setIfPrimaryTerm(primaryTerm));
+    }
+
+    @Override
+    public void saveCheckpoint(RemaskCheckpoint checkpoint) {
+        indexCheckpoint(checkpoint, checkpointRequest(checkpoint));
+    }
+
+    private boolean indexCheckpoint(RemaskCheckpoint checkpoint, IndexRequest request) {
+        try (ThreadContext.StoredContext ignored = threadContext.stashContext()) {
+            client.index(request).actionGet();
+            return true;
+        } catch (Exception e) {
+            if (ExceptionsHelper.unwrapCause(e) instanceof VersionConflictEngineException) {
+                return false;
+            }
+            throw e;
+        }
+    }
+
+    private static IndexRequest checkpointRequest(RemaskCheckpoint checkpoint) {
+        try {
+            return new IndexRequest(RemaskCheckpoint.INDEX_NAME)
+                .id(checkpoint.getJobId())
+                .source(checkpoint.toXContent(XContentFactory.jsonBuilder(), ToXContent.EMPTY_PARAMS));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public boolean isTaskRunning(String taskId) {
+        if (taskId == null) {
+            return false;
+        }
+        try (ThreadContext.StoredContext ignored = threadContext.stashContext()) {
+            GetTaskResponse response = client.admin().cluster().prepareGetTask(taskId).get();
+            return !response.getTask().isCompleted();
+        } catch (Exception e) {
+            // Unknown to a live node, or its node left the cluster
+            if (ExceptionsHelper.unwrapCause(e) instanceof ResourceNotFoundException) {
+                return false;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.plugin.piimasking.remask;
+
+import org.opensearch.action.ActionType;
+
+/**
+ * Runs a re-masking job over an index. The action is index-scoped, so the security plugin only lets
+ * users re-mask indices they may write to.
+ */
+public class RemaskAction extends ActionType<RemaskResponse> {
+
+    public static final String NAME = "indices:data/write/pii_masking/remask";
+    public static final RemaskAction INSTANCE = new RemaskAction();
+
+    private RemaskAction() {
+        super(NAME, RemaskResponse::new);
+    }
+}
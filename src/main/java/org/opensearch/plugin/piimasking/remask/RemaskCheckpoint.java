@@ -0,0 +1,320 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.plugin.piimasking.remask;
+
+import org.opensearch.core.ParseField;
+import org.opensearch.core.common.io.stream.StreamInput;
+import org.opensearch.core.common.io.stream.StreamOutput;
+import org.opensearch.core.common.io.stream.Writeable;
+import org.opensearch.core.xcontent.ToXContentObject;
+import org.opensearch.core.xcontent.XContentBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Persistent state of a re-masking job: its parameters, overall status, the task running it and
+ * per-slice progress. Stored as a document in the checkpoint system index so the job can be
+ * inspected from any node and resumed after an interruption.
+ */
+public class RemaskCheckpoint implements ToXContentObject, Writeable {
+
+    public static final String INDEX_NAME = ".pii-remask-checkpoints";
+
+    private static final ParseField JOB_ID = new ParseField("job_id");
+    private static final ParseField INDEX = new ParseField("index");
+    private static final ParseField SLICES = new ParseField("slices");
+    private static final ParseField BATCH_SIZE = new ParseField("batch_size");
+    private static final ParseField REQUESTS_PER_SECOND = new ParseField("requests_per_second");
+    private static final ParseField STATUS = new ParseField("status");
+    private static final ParseField TASK_ID = new ParseField("task_id");
+    private static final ParseField SLICE_CHECKPOINTS = new ParseField("slice_checkpoints");
+
+    private final String jobId;
+    private final String index;
+    private final int slices;
+    private final int batchSize;
+    private final float requestsPerSecond;
+    private final List<SliceCheckpoint> sliceCheckpoints;
+    private volatile Status status;
+    private volatile String taskId;
+
+    public RemaskCheckpoint(String jobId, String index, int slices, int batchSize, float requestsPerSecond) {
+        if (slices < 1) {
+            throw new IllegalArgumentException("[slices] must be at least 1, got [" + slices + "]");
+        }
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("[batch_size] must be at least 1, got [" + batchSize + "]");
+        }
+        this.jobId = jobId;
+        this.index = index;
+        this.slices = slices;
+        this.batchSize = batchSize;
+        this.requestsPerSecond = requestsPerSecond;
+        this.status = Status.RUNNING;
+        this.sliceCheckpoints = new ArrayList<>(slices);
+        for (int i = 0; i < slices; i++) {
+            sliceCheckpoints.add(new SliceCheckpoint(i));
+        }
+    }
+
+    public RemaskCheckpoint(StreamInput in) throws IOException {
+        this.jobId = in.readString();
+        this.index = in.readString();
+        this.slices = in.readVInt();
+        this.batchSize = in.readVInt();
+        this.requestsPerSecond = in.readFloat();
+        this.status = in.readEnum(Status.class);
+        this.taskId = in.readOptionalString();
+        this.sliceCheckpoints = in.readList(SliceCheckpoint::new);
+    }
+
+    @Override
+    public void writeTo(StreamOutput out) throws IOException {
+        out.writeString(jobId);
+        out.writeString(index);
+        out.writeVInt(slices);
+        out.writeVInt(batchSize);
+        out.writeFloat(requestsPerSecond);
+        out.writeEnum(status);
+        out.writeOptionalString(taskId);
+        out.writeList(sliceCheckpoints);
+    }
+
+    /**
+     * Restore a checkpoint from its stored source
+     */
+    @SuppressWarnings("unchecked")
+    public static RemaskCheckpoint fromSourceMap(Map<String, Object> source) {
+        RemaskCheckpoint checkpoint = new RemaskCheckpoint(
+            (String) source.get(JOB_ID.getPreferredName()),
+            (String) source.get(INDEX.getPreferredName()),
+            ((Number) source.get(SLICES.getPreferredName())).intValue(),
+            ((Number) source.get(BATCH_SIZE.getPreferredName())).intValue(),
+            ((Number) source.get(REQUESTS_PER_SECOND.getPreferredName())).floatValue()
+        );
+        checkpoint.status = Status.fromString((String) source.get(STATUS.getPreferredName()));
+        checkpoint.taskId = (String) source.get(TASK_ID.getPreferredName());
+        List<Map<String, Object>> slices = (List<Map<String, Object>>) source.get(SLICE_CHECKPOINTS.getPreferredName());
+        if (slices != null) {
+            for (Map<String, Object> slice : slices) {
+                int sliceId = ((Number) slice.get(SliceCheckpoint.SLICE.getPreferredName())).intValue();
+                checkpoint.sliceCheckpoints.get(sliceId).restore(slice);
+            }
+        }
+        return checkpoint;
+    }
+
+    @Override
+    public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+        builder.startObject();
+        builder.field(JOB_ID.getPreferredName(), jobId);
+        builder.field(INDEX.getPreferredName(), index);
+        builder.field(SLICES.getPreferredName(), slices);
+        builder.field(BATCH_SIZE.getPreferredName(), batchSize);
+        builder.field(REQUESTS_PER_SECOND.getPreferredName(), requestsPerSecond);
+        builder.field(STATUS.getPreferredName(), status.toString());
+        if (taskId != null) {
+            builder.field(TASK_ID.getPreferredName(), taskId);
+        }
+        builder.startArray(SLICE_CHECKPOINTS.getPreferredName());
+        for (SliceCheckpoint slice : sliceCheckpoints) {
+            slice.toXContent(builder, params);
+        }
+        builder.endArray();
+        builder.endObject();
+        return builder;
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public String getIndex() {
+        return index;
+    }
+
+    public int getSlices() {
+        return slices;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public float getRequestsPerSecond() {
+        return requestsPerSecond;
+    }
+
+    public List<SliceCheckpoint> getSliceCheckpoints() {
+        return sliceCheckpoints;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    /**
+     * Id of the task that last ran the job, as node id and task number separated by a colon
+     */
+    public String getTaskId() {
+        return taskId;
+    }
+
+    public void setTaskId(String taskId) {
+        this.taskId = taskId;
+    }
+
+    /**
+     * Lifecycle of a re-masking job
+     */
+    public enum Status {
+        RUNNING,
+        COMPLETED,
+        CANCELLED,
+        FAILED;
+
+        public static Status fromString(String value) {
+            return valueOf(value.toUpperCase(Locale.ROOT));
+        }
+
+        @Override
+        public String toString() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /**
+     * Progress of one scroll slice. Counters are cumulative across resumes.
+     */
+    public static class SliceCheckpoint implements ToXContentObject, Writeable {
+        private static final ParseField SLICE = new ParseField("slice");
+        private static final ParseField COMPLETED = new ParseField("completed");
+        private static final ParseField PROCESSED = new ParseField("processed");
+        private static final ParseField UPDATED = new ParseField("updated");
+        private static final ParseField CONFLICTS = new ParseField("conflicts");
+        private static final ParseField SKIPPED = new ParseField("skipped");
+        private static final ParseField FAILURES = new ParseField("failures");
+
+        private final int sliceId;
+        private volatile boolean completed;
+        private final AtomicLong processed = new AtomicLong();
+        private final AtomicLong updated = new AtomicLong();
+        private final AtomicLong conflicts = new AtomicLong();
+        private final AtomicLong skipped = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+
+        SliceCheckpoint(int sliceId) {
+            this.sliceId = sliceId;
+        }
+
+        private SliceCheckpoint(StreamInput in) throws IOException {
+            this.sliceId = in.readVInt();
+            this.completed = in.readBoolean();
+            processed.set(in.readVLong());
+            updated.set(in.readVLong());
+            conflicts.set(in.readVLong());
+            skipped.set(in.readVLong());
+            failures.set(in.readVLong());
+        }
+
+        @Override
+        public void writeTo(StreamOutput out) throws IOException {
+            out.writeVInt(sliceId);
+            out.writeBoolean(completed);
+            out.writeVLong(processed.get());
+            out.writeVLong(updated.get());
+            out.writeVLong(conflicts.get());
+            out.writeVLong(skipped.get());
+            out.writeVLong(failures.get());
+        }
+
+        private void restore(Map<String, Object> source) {
+            completed = Boolean.TRUE.equals(source.get(COMPLETED.getPreferredName()));
+            processed.set(((Number) source.get(PROCESSED.getPreferredName())).longValue());
+            updated.set(((Number) source.get(UPDATED.getPreferredName())).longValue());
+            conflicts.set(((Number) source.get(CONFLICTS.getPreferredName())).longValue());
+            skipped.set(((Number) source.get(SKIPPED.getPreferredName())).longValue());
+            failures.set(((Number) source.get(FAILURES.getPreferredName())).longValue());
+        }
+
+        @Override
+        public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+            builder.startObject();
+            builder.field(SLICE.getPreferredName(), sliceId);
+            builder.field(COMPLETED.getPreferredName(), completed);
+            builder.field(PROCESSED.getPreferredName(), processed.get());
+            builder.field(UPDATED.getPreferredName(), updated.get());
+            builder.field(CONFLICTS.getPreferredName(), conflicts.get());
+            builder.field(SKIPPED.getPreferredName(), skipped.get());
+            builder.field(FAILURES.getPreferredName(), failures.get());
+            builder.endObject();
+            return builder;
+        }
+
+        public int getSliceId() {
+            return sliceId;
+        }
+
+        public boolean isCompleted() {
+            return completed;
+        }
+
+        void markCompleted() {
+            completed = true;
+        }
+
+        public long getProcessed() {
+            return processed.get();
+        }
+
+        public long getUpdated() {
+            return updated.get();
+        }
+
+        public long getConflicts() {
+            return conflicts.get();
+        }
+
+        public long getSkipped() {
+            return skipped.get();
+        }
+
+        public long getFailures() {
+            return failures.get();
+        }
+
+        void addProcessed(long count) {
+            processed.addAndGet(count);
+        }
+
+        void addUpdated(long count) {
+            updated.addAndGet(count);
+        }
+
+        void addConflicts(long count) {
+            conflicts.addAndGet(count);
+        }
+
+        void addSkipped(long count) {
+            skipped.addAndGet(count);
+        }
+
+        void addFailures(long count) {
+            failures.addAndGet(count);
+        }
+    }
+}
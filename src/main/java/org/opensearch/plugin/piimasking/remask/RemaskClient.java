@@ -0,0 +1,165 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.plugin.piimasking.remask;
+
+import org.opensearch.common.unit.TimeValue;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cluster operations a re-masking job performs: reading an index slice by slice, writing masked
+ * documents back, and keeping its checkpoint. All calls block, as jobs run on their own threads.
+ */
+interface RemaskClient {
+
+    /**
+     * Open a scroll over one slice of the index, sorted by _doc, with sequence numbers
+     *
+     * @param keepAlive how long the scroll context must survive until the next page is requested
+     */
+    ScrollPage startScroll(String index, int sliceId, int slices, int batchSize, TimeValue keepAlive);
+
+    ScrollPage continueScroll(String scrollId, TimeValue keepAlive);
+
+    void clearScroll(String scrollId);
+
+    /**
+     * Index the documents, each guarded by the sequence number and primary term it was read with
+     *
+     * @return the outcome for each document, in order
+     */
+    List<WriteResult> write(List<StoredDocument> documents);
+
+    /**
+     * @return the stored checkpoint of the job, or null if there is none
+     */
+    StoredCheckpoint getCheckpoint(String jobId);
+
+    /**
+     * @return false if a checkpoint for the job already exists
+     */
+    boolean createCheckpoint(RemaskCheckpoint checkpoint);
+
+    /**
+     * Overwrite the checkpoint only if it is unchanged since it was read
+     *
+     * @return false if it was changed in the meantime
+     */
+    boolean replaceCheckpoint(RemaskCheckpoint checkpoint, long seqNo, long primaryTerm);
+
+    void saveCheckpoint(RemaskCheckpoint checkpoint);
+
+    /**
+     * @return whether the task with the given id is still running anywhere in the cluster
+     */
+    boolean isTaskRunning(String taskId);
+
+    /**
+     * Outcome of writing back one document
+     */
+    enum WriteResult {
+        UPDATED,
+        /** The document changed since it was read */
+        CONFLICT,
+        FAILED
+    }
+
+    /**
+     * A document as read from the index, with what is needed to write it back safely
+     */
+    final class StoredDocument {
+        private final String index;
+        private final String id;
+        private final String routing;
+        private final long seqNo;
+        private final long primaryTerm;
+        private final Map<String, Object> source;
+
+        StoredDocument(String index, String id, String routing, long seqNo, long primaryTerm, Map<String, Object> source) {
+            this.index = index;
+            this.id = id;
+            this.routing = routing;
+            this.seqNo = seqNo;
+            this.primaryTerm = primaryTerm;
+            this.source = source;
+        }
+
+        String getIndex() {
+            return index;
+        }
+
+        String getId() {
+            return id;
+        }
+
+        String getRouting() {
+            return routing;
+        }
+
+        long getSeqNo() {
+            return seqNo;
+        }
+
+        long getPrimaryTerm() {
+            return primaryTerm;
+        }
+
+        Map<String, Object> getSource() {
+            return source;
+        }
+    }
+
+    /**
+     * One page of scroll results; an empty page means the slice is exhausted
+     */
+    final class ScrollPage {
+        private final String scrollId;
+        private final List<StoredDocument> documents;
+
+        ScrollPage(String scrollId, List<StoredDocument> documents) {
+            this.scrollId = scrollId;
+            this.documents = documents;
+        }
+
+        String getScrollId() {
+            return scrollId;
+        }
+
+        List<StoredDocument> getDocuments() {
+            return documents;
+        }
+    }
+
+    /**
+     * A checkpoint together with the version it was read at
+     */
+    final class StoredCheckpoint {
+        private final RemaskCheckpoint checkpoint;
+        private final long seqNo;
+        private final long primaryTerm;
+
+        StoredCheckpoint(RemaskCheckpoint checkpoint, long seqNo, long primaryTerm) {
+            this.checkpoint = checkpoint;
+            this.seqNo = seqNo;
+            this.primaryTerm = primaryTerm;
+        }
+
+        RemaskCheckpoint getCheckpoint() {
+            return checkpoint;
+        }
+
+        long getSeqNo() {
+            return seqNo;
+        }
+
+        long getPrimaryTerm() {
+            return primaryTerm;
+        }
+    }
+}
@@ -0,0 +1,334 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.plugin.piimasking.remask;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.opensearch.OpenSearchStatusException;
+import org.opensearch.ResourceNotFoundException;
+import org.opensearch.common.unit.TimeValue;
+import org.opensearch.common.util.concurrent.ThreadContext;
+import org.opensearch.core.rest.RestStatus;
+import org.opensearch.ingest.IngestDocument;
+import org.opensearch.plugin.piimasking.config.PIIConfiguration;
+import org.opensearch.plugin.piimasking.processor.PIIMaskingProcessor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Re-masks the existing documents of an index with the current PII rules.
+ *
+ * A job first claims its checkpoint for the task running it: a new job creates the checkpoint, a
+ * resumed one takes it over only if the task recorded in it is no longer running, so a job never
+ * runs twice at once across the cluster. Each slice of a sliced scroll is then read on its own
+ * virtual thread. Hits are masked with the same logic as the ingest processor and changed documents
+ * are written back in batched bulk requests, guarded by sequence number so concurrent updates are
+ * never overwritten. Throughput is throttled to the configured documents per second and progress
+ * is checkpointed after every batch.
+ *
+ * Scroll contexts cannot be rewound, so a resumed job skips completed slices and restarts the
+ * others. Documents that are already masked produce no changes, so a restarted slice only pays
+ * the cost of reading them again.
+ */
+class RemaskJob {
+
+    private static final Logger logger = LogManager.getLogger(RemaskJob.class);
+    private static final long MAX_THROTTLE_SLEEP_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final TimeValue SCROLL_KEEP_ALIVE = TimeValue.timeValueMinutes(5);
+    /** Longest a slice may wait between batches, which keeps scroll keep-alives well within search.max_keep_alive */
+    static final TimeValue MAX_BATCH_DELAY = TimeValue.timeValueHours(1);
+
+    private final RemaskClient client;
+    private final PIIMaskingProcessor processor;
+    private final ThreadContext threadContext;
+    private final String taskId;
+    private final BooleanSupplier cancelled;
+    private RemaskCheckpoint checkpoint;
+
+    /**
+     * @param threadContext context to carry over to slice threads, or null if there is none
+     * @param taskId id of the task running the job, recorded in its checkpoint
+     * @param cancelled whether the task running the job was cancelled
+     */
+    RemaskJob(RemaskClient client, PIIMaskingProcessor processor, ThreadContext threadContext, String taskId,
+              BooleanSupplier cancelled) {
+        this.client = client;
+        this.processor = processor;
+        this.threadContext = threadContext;
+        this.taskId = taskId;
+        this.cancelled = cancelled;
+    }
+
+    /**
+     * Claim the job, process every incomplete slice and record the outcome. Blocks until done.
+     *
+     * @return the final checkpoint
+     */
+    RemaskCheckpoint run(RemaskRequest request) {
+        claim(request);
+        return process();
+    }
+
+    /**
+     * Create the job's checkpoint, or take over the stored one of a stopped job, for the task running it
+     *
+     * @return the claimed checkpoint, or the stored one if the job already completed
+     * @throws OpenSearchStatusException with {@link RestStatus#CONFLICT} if the job already exists or is running
+     * @throws ResourceNotFoundException if a job to resume does not exist
+     */
+    RemaskCheckpoint claim(RemaskRequest request) {
+        if (PIIMaskingProcessor.getGlobalConfiguration().getScanLimits().getOversizePolicy()
+            == PIIConfiguration.ScanLimits.OversizePolicy.ROUTE) {
+            // Routing only applies to documents passing through an ingest pipeline
+            throw new IllegalArgumentException("Re-masking is not supported with oversize policy [route]");
+        }
+        checkpoint = request.isResume() ? takeOver(request) : create(request);
+        return checkpoint;
+    }
+
+    /**
+     * Process every incomplete slice of the claimed job and record the outcome. Blocks until done.
+     *
+     * @return the final checkpoint
+     */
+    RemaskCheckpoint process() {
+        assert checkpoint != null : "job must be claimed before it is processed";
+        if (checkpoint.getStatus() == RemaskCheckpoint.Status.COMPLETED) {
+            return checkpoint;
+        }
+
+        List<Thread> workers = new ArrayList<>();
+        List<Exception> errors = new ArrayList<>();
+        for (RemaskCheckpoint.SliceCheckpoint slice : checkpoint.getSliceCheckpoints()) {
+            if (slice.isCompleted()) {
+                continue;
+            }
+            Runnable worker = () -> {
+                try {
+                    runSlice(slice);
+                } catch (Exception e) {
+                    logger.warn("Slice [{}] of re-masking job [{}] failed: {}",
+                        slice.getSliceId(), checkpoint.getJobId(), e.getMessage());
+                    synchronized (errors) {
+                        errors.add(e);
+                    }
+                }
+            };
+            // Threads start with an empty context; keep the caller's so requests are authorized as them
+            workers.add(Thread.ofVirtual()
+                .name("pii-remask-" + checkpoint.getJobId() + "-" + slice.getSliceId())
+                .start(threadContext != null ? threadContext.preserveContext(worker) : worker));
+        }
+
+        boolean interrupted = false;
+        try {
+            for (Thread worker : workers) {
+                worker.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            interrupted = true;
+        }
+
+        if (interrupted || cancelled.getAsBoolean()) {
+            checkpoint.setStatus(RemaskCheckpoint.Status.CANCELLED);
+        } else if (errors.isEmpty()) {
+            checkpoint.setStatus(RemaskCheckpoint.Status.COMPLETED);
+        } else {
+            checkpoint.setStatus(RemaskCheckpoint.Status.FAILED);
+        }
+        persistCheckpoint();
+        logger.info("Re-masking job [{}] on index [{}] finished with status [{}]",
+            checkpoint.getJobId(), checkpoint.getIndex(), checkpoint.getStatus());
+        return checkpoint;
+    }
+
+    private RemaskCheckpoint create(RemaskRequest request) {
+        RemaskCheckpoint created = new RemaskCheckpoint(request.getJobId(), request.getIndex(), request.getSlices(),
+                                                        request.getBatchSize(), request.getRequestsPerSecond());
+        created.setTaskId(taskId);
+        if (!client.createCheckpoint(created)) {
+            throw new OpenSearchStatusException("Re-masking job [" + request.getJobId() + "] already exists",
+                RestStatus.CONFLICT);
+        }
+        return created;
+    }
+
+    /**
+     * Take over the stored checkpoint of a stopped job. The conditional write fails if another node
+     * claimed it since it was read.
+     */
+    private RemaskCheckpoint takeOver(RemaskRequest request) {
+        String jobId = request.getJobId();
+        RemaskClient.StoredCheckpoint stored = client.getCheckpoint(jobId);
+        if (stored == null) {
+            throw new ResourceNotFoundException("Re-masking job [" + jobId + "] not found");
+        }
+        RemaskCheckpoint claimed = stored.getCheckpoint();
+        if (!claimed.getIndex().equals(request.getIndex())) {
+            throw new IllegalArgumentException("Re-masking job [" + jobId + "] belongs to index ["
+                + claimed.getIndex() + "], not [" + request.getIndex() + "]");
+        }
+        if (claimed.getStatus() == RemaskCheckpoint.Status.COMPLETED) {
+            return claimed;
+        }
+        if (claimed.getStatus() == RemaskCheckpoint.Status.RUNNING && client.isTaskRunning(claimed.getTaskId())) {
+            throw new OpenSearchStatusException("Re-masking job [" + jobId + "] is already running as task ["
+                + claimed.getTaskId() + "]", RestStatus.CONFLICT);
+        }
+
+        claimed.setStatus(RemaskCheckpoint.Status.RUNNING);
+        claimed.setTaskId(taskId);
+        if (!client.replaceCheckpoint(claimed, stored.getSeqNo(), stored.getPrimaryTerm())) {
+            throw new OpenSearchStatusException("Re-masking job [" + jobId + "] was resumed concurrently",
+                RestStatus.CONFLICT);
+        }
+        return claimed;
+    }
+
+    private void runSlice(RemaskCheckpoint.SliceCheckpoint slice) throws InterruptedException {
+        TimeValue keepAlive = scrollKeepAlive();
+        RemaskClient.ScrollPage page = client.startScroll(checkpoint.getIndex(), slice.getSliceId(),
+                                                          checkpoint.getSlices(), checkpoint.getBatchSize(), keepAlive);
+        String scrollId = page.getScrollId();
+        try {
+            while (!cancelled.getAsBoolean()) {
+                List<RemaskClient.StoredDocument> documents = page.getDocuments();
+                if (documents.isEmpty()) {
+                    slice.markCompleted();
+                    break;
+                }
+
+                long batchStart = System.nanoTime();
+                processBatch(slice, documents);
+                persistCheckpoint();
+                throttle(documents.size(), batchStart);
+
+                page = client.continueScroll(scrollId, keepAlive);
+                scrollId = page.getScrollId();
+            }
+        } finally {
+            clearScroll(scrollId);
+        }
+    }
+
+    private void processBatch(RemaskCheckpoint.SliceCheckpoint slice, List<RemaskClient.StoredDocument> documents) {
+        List<RemaskClient.StoredDocument> changed = new ArrayList<>();
+        long skipped = 0;
+        for (RemaskClient.StoredDocument stored : documents) {
+            IngestDocument document = new IngestDocument(stored.getIndex(), stored.getId(), null, null, null,
+                                                         stored.getSource());
+            boolean modified;
+            try {
+                modified = processor.maskFields(document, true);
+            } catch (IllegalArgumentException e) {
+                // An oversized value that cannot be re-masked under the scan budget policy; leave it as is
+                skipped++;
+                continue;
+            }
+            if (!modified) {
+                continue;
+            }
+
+            document.extractMetadata();
+            changed.add(new RemaskClient.StoredDocument(stored.getIndex(), stored.getId(), stored.getRouting(),
+                                                        stored.getSeqNo(), stored.getPrimaryTerm(),
+                                                        document.getSourceAndMetadata()));
+        }
+
+        slice.addProcessed(documents.size());
+        slice.addSkipped(skipped);
+        if (changed.isEmpty()) {
+            return;
+        }
+
+        List<RemaskClient.WriteResult> results = client.write(changed);
+        long updated = 0;
+        long conflicts = 0;
+        long failures = 0;
+        for (int i = 0; i < results.size(); i++) {
+            switch (results.get(i)) {
+                case UPDATED:
+                    updated++;
+                    break;
+                case CONFLICT:
+                    // Document changed since it was read; newer writes go through the ingest pipeline
+                    conflicts++;
+                    break;
+                default:
+                    failures++;
+                    logger.debug("Failed to re-mask document [{}] in [{}]",
+                        changed.get(i).getId(), changed.get(i).getIndex());
+            }
+        }
+        slice.addUpdated(updated);
+        slice.addConflicts(conflicts);
+        slice.addFailures(failures);
+    }
+
+    /**
+     * Each page is followed by a throttle delay before the next one is requested, so the scroll
+     * context has to outlive the longest delay a full batch can cause on top of the base keep-alive
+     */
+    private TimeValue scrollKeepAlive() {
+        return TimeValue.timeValueNanos(SCROLL_KEEP_ALIVE.nanos() + batchDelayNanos(
+            checkpoint.getBatchSize(), checkpoint.getRequestsPerSecond(), checkpoint.getSlices()));
+    }
+
+    /**
+     * Time a slice waits for a batch of the given size to stay within its share of the requests
+     * per second budget
+     */
+    static long batchDelayNanos(int documents, float requestsPerSecond, int slices) {
+        if (requestsPerSecond <= 0) {
+            return 0;
+        }
+        double perSlice = (double) requestsPerSecond / slices;
+        return (long) (documents / perSlice * TimeUnit.SECONDS.toNanos(1));
+    }
+
+    /**
+     * Sleep long enough that this slice stays within its share of the requests per second budget,
+     * waking up regularly to stop early if the job is cancelled
+     */
+    private void throttle(int documents, long batchStartNanos) throws InterruptedException {
+        long delayNanos = batchDelayNanos(documents, checkpoint.getRequestsPerSecond(), checkpoint.getSlices());
+        if (delayNanos == 0) {
+            return;
+        }
+        long deadline = batchStartNanos + delayNanos;
+        long remainingNanos;
+        while ((remainingNanos = deadline - System.nanoTime()) > 0 && !cancelled.getAsBoolean()) {
+            TimeUnit.NANOSECONDS.sleep(Math.min(remainingNanos, MAX_THROTTLE_SLEEP_NANOS));
+        }
+    }
+
+    private synchronized void persistCheckpoint() {
+        try {
+            client.saveCheckpoint(checkpoint);
+        } catch (Exception e) {
+            logger.warn("Failed to persist checkpoint for re-masking job [{}]: {}",
+                checkpoint.getJobId(), e.getMessage());
+        }
+    }
+
+    private void clearScroll(String scrollId) {
+        if (scrollId == null) {
+            return;
+        }
+        try {
+            client.clearScroll(scrollId);
+        } catch (Exception e) {
+            logger.debug("Failed to clear scroll for re-masking job [{}]: {}",
+                checkpoint.getJobId(), e.getMessage());
+        }
+    }
+}
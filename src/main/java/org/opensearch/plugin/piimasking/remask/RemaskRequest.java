@@ -0,0 +1,153 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.plugin.piimasking.remask;
+
+import org.opensearch.action.ActionRequest;
+import org.opensearch.action.ActionRequestValidationException;
+import org.opensearch.action.IndicesRequest;
+import org.opensearch.action.support.IndicesOptions;
+import org.opensearch.core.common.io.stream.StreamInput;
+import org.opensearch.core.common.io.stream.StreamOutput;
+import org.opensearch.core.tasks.TaskId;
+import org.opensearch.tasks.Task;
+
+import java.io.IOException;
+import java.util.Map;
+
+import static org.opensearch.action.ValidateActions.addValidationError;
+
+/**
+ * Start a new re-masking job, or resume a stopped one, over a single index
+ */
+public class RemaskRequest extends ActionRequest implements IndicesRequest {
+
+    private final String jobId;
+    private final String index;
+    private final int slices;
+    private final int batchSize;
+    private final float requestsPerSecond;
+    private final boolean resume;
+    private boolean waitForCompletion = true;
+
+    /**
+     * @param resume whether to resume the existing job with this id; its stored parameters are kept
+     */
+    public RemaskRequest(String jobId, String index, int slices, int batchSize, float requestsPerSecond, boolean resume) {
+        this.jobId = jobId;
+        this.index = index;
+        this.slices = slices;
+        this.batchSize = batchSize;
+        this.requestsPerSecond = requestsPerSecond;
+        this.resume = resume;
+    }
+
+    public RemaskRequest(StreamInput in) throws IOException {
+        super(in);
+        this.jobId = in.readString();
+        this.index = in.readString();
+        this.slices = in.readVInt();
+        this.batchSize = in.readVInt();
+        this.requestsPerSecond = in.readFloat();
+        this.resume = in.readBoolean();
+        this.waitForCompletion = in.readBoolean();
+    }
+
+    @Override
+    public void writeTo(StreamOutput out) throws IOException {
+        super.writeTo(out);
+        out.writeString(jobId);
+        out.writeString(index);
+        out.writeVInt(slices);
+        out.writeVInt(batchSize);
+        out.writeFloat(requestsPerSecond);
+        out.writeBoolean(resume);
+        out.writeBoolean(waitForCompletion);
+    }
+
+    @Override
+    public ActionRequestValidationException validate() {
+        ActionRequestValidationException validationException = null;
+        if (jobId == null) {
+            validationException = addValidationError("[job_id] is missing", validationException);
+        }
+        if (index == null) {
+            validationException = addValidationError("[index] is missing", validationException);
+        }
+        if (slices < 1) {
+            validationException = addValidationError("[slices] must be at least 1, got [" + slices + "]",
+                                                     validationException);
+        }
+        if (batchSize < 1) {
+            validationException = addValidationError("[batch_size] must be at least 1, got [" + batchSize + "]",
+                                                     validationException);
+        }
+        if (slices >= 1 && batchSize >= 1
+            && RemaskJob.batchDelayNanos(batchSize, requestsPerSecond, slices) > RemaskJob.MAX_BATCH_DELAY.nanos()) {
+            validationException = addValidationError("[requests_per_second] of [" + requestsPerSecond + "] would wait "
+                + "more than [" + RemaskJob.MAX_BATCH_DELAY + "] between batches of [" + batchSize + "] documents "
+                + "per slice; lower [batch_size] or raise [requests_per_second]", validationException);
+        }
+        return validationException;
+    }
+
+    @Override
+    public String[] indices() {
+        return new String[] { index };
+    }
+
+    @Override
+    public IndicesOptions indicesOptions() {
+        return IndicesOptions.strictSingleIndexNoExpandForbidClosed();
+    }
+
+    @Override
+    public Task createTask(long id, String type, String action, TaskId parentTaskId, Map<String, String> headers) {
+        return new RemaskTask(id, type, action, getDescription(), parentTaskId, headers);
+    }
+
+    @Override
+    public String getDescription() {
+        return "remask [" + index + "] job [" + jobId + "]";
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public String getIndex() {
+        return index;
+    }
+
+    public int getSlices() {
+        return slices;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public float getRequestsPerSecond() {
+        return requestsPerSecond;
+    }
+
+    public boolean isResume() {
+        return resume;
+    }
+
+    /**
+     * @param waitForCompletion whether to respond once the job finishes, or as soon as it is claimed
+     *                          while it keeps running in the background
+     */
+    public void setWaitForCompletion(boolean waitForCompletion) {
+        this.waitForCompletion = waitForCompletion;
+    }
+
+    public boolean isWaitForCompletion() {
+        return waitForCompletion;
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.plugin.piimasking.remask;
+
+import org.opensearch.core.action.ActionResponse;
+import org.opensearch.core.common.io.stream.StreamInput;
+import org.opensearch.core.common.io.stream.StreamOutput;
+import org.opensearch.core.xcontent.ToXContentObject;
+import org.opensearch.core.xcontent.XContentBuilder;
+
+import java.io.IOException;
+
+/**
+ * Checkpoint of a re-masking job: the final one of a finished job, the claimed one of a job left running in
+ * the background, or the current one when reading its status
+ */
+public class RemaskResponse extends ActionResponse implements ToXContentObject {
+
+    private final RemaskCheckpoint checkpoint;
+
+    public RemaskResponse(RemaskCheckpoint checkpoint) {
+        this.checkpoint = checkpoint;
+    }
+
+    public RemaskResponse(StreamInput in) throws IOException {
+        super(in);
+        this.checkpoint = new RemaskCheckpoint(in);
+    }
+
+    @Override
+    public void writeTo(StreamOutput out) throws IOException {
+        checkpoint.writeTo(out);
+    }
+
+    @Override
+    public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+        return checkpoint.toXContent(builder, params);
+    }
+
+    public RemaskCheckpoint getCheckpoint() {
+        return checkpoint;
+    }
+}
@@ -0,0 +1,24 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.plugin.piimasking.remask;
+
+import org.opensearch.action.ActionType;
+
+/**
+ * Reads the checkpoint of a re-masking job. The action is scoped to the job's index, so the security
+ * plugin only shows users the jobs of indices they may monitor.
+ */
+public class RemaskStatusAction extends ActionType<RemaskResponse> {
+
+    public static final String NAME = "indices:monitor/pii_masking/remask/status";
+    public static final RemaskStatusAction INSTANCE = new RemaskStatusAction();
+
+    private RemaskStatusAction() {
+        super(NAME, RemaskResponse::new);
+    }
+}
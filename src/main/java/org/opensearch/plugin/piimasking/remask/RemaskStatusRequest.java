@@ -0,0 +1,76 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.plugin.piimasking.remask;
+
+import org.opensearch.action.ActionRequest;
+import org.opensearch.action.ActionRequestValidationException;
+import org.opensearch.action.IndicesRequest;
+import org.opensearch.action.support.IndicesOptions;
+import org.opensearch.core.common.io.stream.StreamInput;
+import org.opensearch.core.common.io.stream.StreamOutput;
+
+import java.io.IOException;
+
+import static org.opensearch.action.ValidateActions.addValidationError;
+
+/**
+ * Get the checkpoint of a re-masking job over the given index
+ */
+public class RemaskStatusRequest extends ActionRequest implements IndicesRequest {
+
+    private final String jobId;
+    private final String index;
+
+    public RemaskStatusRequest(String jobId, String index) {
+        this.jobId = jobId;
+        this.index = index;
+    }
+
+    public RemaskStatusRequest(StreamInput in) throws IOException {
+        super(in);
+        this.jobId = in.readString();
+        this.index = in.readString();
+    }
+
+    @Override
+    public void writeTo(StreamOutput out) throws IOException {
+        super.writeTo(out);
+        out.writeString(jobId);
+        out.writeString(index);
+    }
+
+    @Override
+    public ActionRequestValidationException validate() {
+        ActionRequestValidationException validationException = null;
+        if (jobId == null) {
+            validationException = addValidationError("[job_id] is missing", validationException);
+        }
+        if (index == null) {
+            validationException = addValidationError("[index] is missing", validationException);
+        }
+        return validationException;
+    }
+
+    @Override
+    public String[] indices() {
+        return new String[] { index };
+    }
+
+    @Override
+    public IndicesOptions indicesOptions() {
+        return IndicesOptions.strictSingleIndexNoExpandForbidClosed();
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public String getIndex() {
+        return index;
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.plugin.piimasking.remask;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.opensearch.action.support.ActionFilters;
+import org.opensearch.action.support.HandledTransportAction;
+import org.opensearch.common.inject.Inject;
+import org.opensearch.common.util.concurrent.ThreadContext;
+import org.opensearch.core.action.ActionListener;
+import org.opensearch.core.tasks.TaskId;
+import org.opensearch.plugin.piimasking.processor.PIIMaskingProcessor;
+import org.opensearch.tasks.Task;
+import org.opensearch.threadpool.ThreadPool;
+import org.opensearch.transport.TransportService;
+import org.opensearch.transport.client.Client;
+
+import java.util.HashMap;
+
+/**
+ * Runs a re-masking job as a cancellable task on the node that receives the request.
+ *
+ * The job blocks on client calls for as long as it takes to read the whole index, so it runs on its
+ * own virtual thread, carrying over the caller's thread context. The job is claimed before anything
+ * is returned, so a request that cannot start its job always fails. Without wait_for_completion the
+ * response is sent as soon as the job is claimed, and the job keeps running under a task of its own
+ * that is registered until the job finishes; cancelling that task stops the job after its current
+ * batches.
+ */
+public class TransportRemaskAction extends HandledTransportAction<RemaskRequest, RemaskResponse> {
+
+    private static final Logger logger = LogManager.getLogger(TransportRemaskAction.class);
+
+    private final TransportService transportService;
+    private final Client client;
+    private final ThreadPool threadPool;
+
+    @Inject
+    public TransportRemaskAction(TransportService transportService, ActionFilters actionFilters, Client client,
+                                 ThreadPool threadPool) {
+        super(RemaskAction.NAME, transportService, actionFilters, RemaskRequest::new);
+        this.transportService = transportService;
+        this.client = client;
+        this.threadPool = threadPool;
+    }
+
+    @Override
+    protected void doExecute(Task task, RemaskRequest request, ActionListener<RemaskResponse> listener) {
+        ThreadContext threadContext = threadPool.getThreadContext();
+
+        PIIMaskingProcessor processor;
+        try {
+            processor = (PIIMaskingProcessor) new PIIMaskingProcessor.Factory(null)
+                .create(null, "remask-" + request.getJobId(), null, new HashMap<>());
+        } catch (Exception e) {
+            listener.onFailure(e);
+            return;
+        }
+
+        // The request's own task ends with the response, so a job left running needs a task of its own
+        boolean waitForCompletion = request.isWaitForCompletion();
+        RemaskTask jobTask = waitForCompletion
+            ? (RemaskTask) task
+            : (RemaskTask) taskManager.register("transport", RemaskAction.NAME, request);
+        String taskId = new TaskId(transportService.getLocalNode().getId(), jobTask.getId()).toString();
+        RemaskJob job = new RemaskJob(new NodeRemaskClient(client, threadContext), processor, threadContext, taskId,
+                                      jobTask::isCancelled);
+
+        ActionListener<RemaskResponse> completionListener = waitForCompletion ? listener : ActionListener.wrap(
+            response -> logger.debug("Re-masking job [{}] finished with status [{}]",
+                request.getJobId(), response.getCheckpoint().getStatus()),
+            e -> logger.warn("Re-masking job [{}] failed: {}", request.getJobId(), e.getMessage()));
+
+        Runnable run = () -> {
+            try {
+                RemaskCheckpoint claimed;
+                try {
+                    claimed = job.claim(request);
+                } catch (Exception e) {
+                    listener.onFailure(e);
+                    return;
+                }
+                if (!waitForCompletion) {
+                    // Sent before any slice starts, so the checkpoint is not modified while it is rendered
+                    listener.onResponse(new RemaskResponse(claimed));
+                }
+
+                RemaskCheckpoint checkpoint;
+                try {
+                    checkpoint = job.process();
+                } catch (Exception e) {
+                    completionListener.onFailure(e);
+                    return;
+                }
+                completionListener.onResponse(new RemaskResponse(checkpoint));
+            } finally {
+                if (jobTask != task) {
+                    taskManager.unregister(jobTask);
+                }
+            }
+        };
+        Thread.ofVirtual()
+            .name("pii-remask-" + request.getJobId())
+            .start(threadContext.preserveContext(run));
+    }
+}
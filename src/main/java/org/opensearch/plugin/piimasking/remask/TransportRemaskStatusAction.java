@@ -0,0 +1,66 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.plugin.piimasking.remask;
+
+import org.opensearch.ResourceNotFoundException;
+import org.opensearch.action.get.GetRequest;
+import org.opensearch.action.support.ActionFilters;
+import org.opensearch.action.support.ContextPreservingActionListener;
+import org.opensearch.action.support.HandledTransportAction;
+import org.opensearch.common.inject.Inject;
+import org.opensearch.common.util.concurrent.ThreadContext;
+import org.opensearch.core.action.ActionListener;
+import org.opensearch.index.IndexNotFoundException;
+import org.opensearch.tasks.Task;
+import org.opensearch.transport.TransportService;
+import org.opensearch.transport.client.Client;
+
+import java.util.function.Supplier;
+
+/**
+ * Reads a job's checkpoint once the caller has been authorized against the job's index.
+ *
+ * The checkpoint index is a system index, so it is read with the context stashed; the caller's
+ * context is restored before the listener runs. Jobs of other indices are reported as not found,
+ * so their existence is not revealed to users without access to them.
+ */
+public class TransportRemaskStatusAction extends HandledTransportAction<RemaskStatusRequest, RemaskResponse> {
+
+    private final Client client;
+
+    @Inject
+    public TransportRemaskStatusAction(TransportService transportService, ActionFilters actionFilters, Client client) {
+        super(RemaskStatusAction.NAME, transportService, actionFilters, RemaskStatusRequest::new);
+        this.client = client;
+    }
+
+    @Override
+    protected void doExecute(Task task, RemaskStatusRequest request, ActionListener<RemaskResponse> listener) {
+        String jobId = request.getJobId();
+        ThreadContext threadContext = client.threadPool().getThreadContext();
+        Supplier<ThreadContext.StoredContext> restorable = threadContext.newRestorableContext(false);
+        try (ThreadContext.StoredContext ignored = threadContext.stashContext()) {
+            client.get(new GetRequest(RemaskCheckpoint.INDEX_NAME, jobId), new ContextPreservingActionListener<>(
+                restorable, ActionListener.wrap(response -> {
+                    RemaskCheckpoint checkpoint = response.isExists()
+                        ? RemaskCheckpoint.fromSourceMap(response.getSourceAsMap())
+                        : null;
+                    if (checkpoint == null || !checkpoint.getIndex().equals(request.getIndex())) {
+                        listener.onFailure(notFound(request));
+                        return;
+                    }
+                    listener.onResponse(new RemaskResponse(checkpoint));
+                }, e -> listener.onFailure(e instanceof IndexNotFoundException ? notFound(request) : e))));
+        }
+    }
+
+    private static ResourceNotFoundException notFound(RemaskStatusRequest request) {
+        return new ResourceNotFoundException("Re-masking job [" + request.getJobId() + "] not found on index ["
+            + request.getIndex() + "]");
+    }
+}
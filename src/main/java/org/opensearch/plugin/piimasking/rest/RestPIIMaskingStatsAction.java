@@ -0,0 +1,57 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.plugin.piimasking.rest;
+
+import org.opensearch.core.common.Strings;
+import org.opensearch.plugin.piimasking.stats.PIIMaskingStatsAction;
+import org.opensearch.plugin.piimasking.stats.PIIMaskingStatsRequest;
+import org.opensearch.rest.BaseRestHandler;
+import org.opensearch.rest.RestRequest;
+import org.opensearch.rest.action.RestActions;
+import org.opensearch.transport.client.node.NodeClient;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.opensearch.rest.RestRequest.Method.GET;
+
+/**
+ * REST handler for PII masking counters
+ *
+ * Endpoints:
+ * - GET /_plugins/pii-masking/_stats - Counters of every node
+ * - GET /_plugins/pii-masking/{node_id}/_stats - Counters of the given nodes
+ */
+public class RestPIIMaskingStatsAction extends BaseRestHandler {
+
+    private static final String PLUGIN_BASE_URI = "/_plugins/pii-masking";
+
+    @Override
+    public List<Route> routes() {
+        return List.of(
+            new Route(GET, PLUGIN_BASE_URI + "/_stats"),
+            new Route(GET, PLUGIN_BASE_URI + "/{node_id}/_stats")
+        );
+    }
+
+    @Override
+    public String getName() {
+        return "pii_masking_stats_handler";
+    }
+
+    @Override
+    protected RestChannelConsumer prepareRequest(RestRequest request, NodeClient client) throws IOException {
+        String[] nodesIds = Strings.splitStringByCommaToArray(request.param("node_id"));
+        PIIMaskingStatsRequest statsRequest = new PIIMaskingStatsRequest(nodesIds);
+        if (request.hasParam("timeout")) {
+            statsRequest.timeout(request.param("timeout"));
+        }
+        return channel -> client.execute(PIIMaskingStatsAction.INSTANCE, statsRequest,
+                                         new RestActions.NodesResponseRestListener<>(channel));
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.plugin.piimasking.rest;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.opensearch.ResourceNotFoundException;
+import org.opensearch.action.admin.cluster.node.tasks.cancel.CancelTasksRequest;
+import org.opensearch.common.UUIDs;
+import org.opensearch.core.action.ActionListener;
+import org.opensearch.core.rest.RestStatus;
+import org.opensearch.core.tasks.TaskId;
+import org.opensearch.core.xcontent.ToXContent;
+import org.opensearch.core.xcontent.XContentBuilder;
+import org.opensearch.plugin.piimasking.remask.RemaskAction;
+import org.opensearch.plugin.piimasking.remask.RemaskCheckpoint;
+import org.opensearch.plugin.piimasking.remask.RemaskRequest;
+import org.opensearch.plugin.piimasking.remask.RemaskStatusAction;
+import org.opensearch.plugin.piimasking.remask.RemaskStatusRequest;
+import org.opensearch.rest.BaseRestHandler;
+import org.opensearch.rest.BytesRestResponse;
+import org.opensearch.rest.RestChannel;
+import org.opensearch.rest.RestRequest;
+import org.opensearch.rest.action.RestToXContentListener;
+import org.opensearch.transport.client.node.NodeClient;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.opensearch.rest.RestRequest.Method.GET;
+import static org.opensearch.rest.RestRequest.Method.POST;
+
+/**
+ * REST handler for re-masking existing indices
+ *
+ * Endpoints:
+ * - POST /_plugins/pii-masking/_remask/{index} - Start a job (or resume one with ?job_id=)
+ * - GET /_plugins/pii-masking/_remask/{index}/_jobs/{job_id} - Get job progress
+ * - POST /_plugins/pii-masking/_remask/{index}/_jobs/{job_id}/_cancel - Stop a running job
+ *
+ * Jobs run as tasks of the remask transport action. Progress and the running task are read from the
+ * job's checkpoint through the status action, which is authorized against the job's index, so every
+ * endpoint works from any node.
+ */
+public class RestRemaskAction extends BaseRestHandler {
+
+    private static final Logger logger = LogManager.getLogger(RestRemaskAction.class);
+    private static final String REMASK_BASE_URI = "/_plugins/pii-masking/_remask";
+
+    @Override
+    public List<Route> routes() {
+        return List.of(
+            new Route(POST, REMASK_BASE_URI + "/{index}"),
+            new Route(GET, REMASK_BASE_URI + "/{index}/_jobs/{job_id}"),
+            new Route(POST, REMASK_BASE_URI + "/{index}/_jobs/{job_id}/_cancel")
+        );
+    }
+
+    @Override
+    public String getName() {
+        return "pii_masking_remask_handler";
+    }
+
+    @Override
+    protected RestChannelConsumer prepareRequest(RestRequest request, NodeClient client) throws IOException {
+        if (request.path().endsWith("/_cancel")) {
+            RemaskStatusRequest statusRequest = new RemaskStatusRequest(request.param("job_id"), request.param("index"));
+            return channel -> client.execute(RemaskStatusAction.INSTANCE, statusRequest, ActionListener.wrap(
+                response -> cancel(client, response.getCheckpoint(), channel),
+                e -> sendFailure(channel, e)));
+        }
+
+        if (request.method() == GET) {
+            RemaskStatusRequest statusRequest = new RemaskStatusRequest(request.param("job_id"), request.param("index"));
+            return channel -> client.execute(RemaskStatusAction.INSTANCE, statusRequest,
+                                             new RestToXContentListener<>(channel));
+        }
+
+        String resumeJobId = request.param("job_id");
+        String jobId = resumeJobId != null ? resumeJobId : UUIDs.randomBase64UUID();
+        RemaskRequest remaskRequest = new RemaskRequest(
+            jobId,
+            request.param("index"),
+            request.paramAsInt("slices", 1),
+            request.paramAsInt("batch_size", 500),
+            request.paramAsFloat("requests_per_second", -1),
+            resumeJobId != null
+        );
+
+        if (request.paramAsBoolean("wait_for_completion", false)) {
+            return channel -> client.execute(RemaskAction.INSTANCE, remaskRequest, new RestToXContentListener<>(channel));
+        }
+        // The response arrives once the job is claimed, so requests that cannot start a job still fail
+        remaskRequest.setWaitForCompletion(false);
+        return channel -> client.execute(RemaskAction.INSTANCE, remaskRequest, ActionListener.wrap(
+            response -> sendAccepted(channel, response.getCheckpoint()),
+            e -> sendFailure(channel, e)));
+    }
+
+    /**
+     * Cancel the task running the job, wherever it runs, as the calling user
+     */
+    private void cancel(NodeClient client, RemaskCheckpoint checkpoint, RestChannel channel) {
+        if (checkpoint.getStatus() != RemaskCheckpoint.Status.RUNNING || checkpoint.getTaskId() == null) {
+            sendAcknowledged(channel, false);
+            return;
+        }
+        CancelTasksRequest cancelTasksRequest = new CancelTasksRequest();
+        cancelTasksRequest.setTaskId(new TaskId(checkpoint.getTaskId()));
+        cancelTasksRequest.setReason("re-masking job cancelled");
+        client.admin().cluster().cancelTasks(cancelTasksRequest, ActionListener.wrap(
+            response -> sendAcknowledged(channel, !response.getTasks().isEmpty()),
+            e -> {
+                if (e instanceof ResourceNotFoundException) {
+                    // The task is gone although the checkpoint still says running, e.g. after a node left
+                    sendAcknowledged(channel, false);
+                } else {
+                    sendFailure(channel, e);
+                }
+            }));
+    }
+
+    /**
+     * Report the job left running in the background, or the stored checkpoint of a job that already completed
+     */
+    private static void sendAccepted(RestChannel channel, RemaskCheckpoint checkpoint) {
+        try {
+            XContentBuilder builder = channel.newBuilder();
+            if (checkpoint.getStatus() == RemaskCheckpoint.Status.COMPLETED) {
+                checkpoint.toXContent(builder, ToXContent.EMPTY_PARAMS);
+                channel.sendResponse(new BytesRestResponse(RestStatus.OK, builder));
+                return;
+            }
+            builder.startObject()
+                .field("job_id", checkpoint.getJobId())
+                .field("task", checkpoint.getTaskId())
+                .endObject();
+            channel.sendResponse(new BytesRestResponse(RestStatus.ACCEPTED, builder));
+        } catch (IOException e) {
+            sendFailure(channel, e);
+        }
+    }
+
+    private static void sendAcknowledged(RestChannel channel, boolean acknowledged) {
+        try {
+            XContentBuilder builder = channel.newBuilder()
+                .startObject()
+                .field("acknowledged", acknowledged)
+                .endObject();
+            channel.sendResponse(new BytesRestResponse(acknowledged ? RestStatus.OK : RestStatus.NOT_FOUND, builder));
+        } catch (IOException e) {
+            sendFailure(channel, e);
+        }
+    }
+
+    private static void sendFailure(RestChannel channel, Exception e) {
+        try {
+            channel.sendResponse(new BytesRestResponse(channel, e));
+        } catch (IOException inner) {
+            inner.addSuppressed(e);
+            logger.warn("Failed to send re-masking failure response", inner);
+        }
+    }
+}
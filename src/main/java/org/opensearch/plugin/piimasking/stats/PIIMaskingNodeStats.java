@@ -0,0 +1,120 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.plugin.piimasking.stats;
+
+import org.opensearch.action.support.nodes.BaseNodeResponse;
+import org.opensearch.cluster.node.DiscoveryNode;
+import org.opensearch.core.common.io.stream.StreamInput;
+import org.opensearch.core.common.io.stream.StreamOutput;
+import org.opensearch.core.xcontent.ToXContentFragment;
+import org.opensearch.core.xcontent.XContentBuilder;
+import org.opensearch.plugin.piimasking.config.PIIConfiguration;
+import org.opensearch.plugin.piimasking.processor.OffloadExecutor;
+import org.opensearch.plugin.piimasking.processor.ScanBudgetStats;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Scan budget and offload counters of one node, cumulative since it started
+ */
+public class PIIMaskingNodeStats extends BaseNodeResponse implements ToXContentFragment {
+
+    private final long fieldBudgetExceeded;
+    private final long documentBudgetExceeded;
+    private final Map<PIIConfiguration.ScanLimits.OversizePolicy, Long> policyApplied;
+    private final int offloadInFlight;
+    private final int offloadQueued;
+    private final long offloadRejected;
+
+    public PIIMaskingNodeStats(DiscoveryNode node, ScanBudgetStats scanBudgetStats, OffloadExecutor offloadExecutor) {
+        super(node);
+        this.fieldBudgetExceeded = scanBudgetStats.getFieldBudgetExceeded();
+        this.documentBudgetExceeded = scanBudgetStats.getDocumentBudgetExceeded();
+        this.policyApplied = new EnumMap<>(PIIConfiguration.ScanLimits.OversizePolicy.class);
+        for (PIIConfiguration.ScanLimits.OversizePolicy policy : PIIConfiguration.ScanLimits.OversizePolicy.values()) {
+            policyApplied.put(policy, scanBudgetStats.getPolicyApplied(policy));
+        }
+        this.offloadInFlight = offloadExecutor.getInFlight();
+        this.offloadQueued = offloadExecutor.getQueued();
+        this.offloadRejected = offloadExecutor.getRejected();
+    }
+
+    public PIIMaskingNodeStats(StreamInput in) throws IOException {
+        super(in);
+        this.fieldBudgetExceeded = in.readVLong();
+        this.documentBudgetExceeded = in.readVLong();
+        this.policyApplied = new EnumMap<>(PIIConfiguration.ScanLimits.OversizePolicy.class);
+        int policies = in.readVInt();
+        for (int i = 0; i < policies; i++) {
+            policyApplied.put(in.readEnum(PIIConfiguration.ScanLimits.OversizePolicy.class), in.readVLong());
+        }
+        this.offloadInFlight = in.readVInt();
+        this.offloadQueued = in.readVInt();
+        this.offloadRejected = in.readVLong();
+    }
+
+    @Override
+    public void writeTo(StreamOutput out) throws IOException {
+        super.writeTo(out);
+        out.writeVLong(fieldBudgetExceeded);
+        out.writeVLong(documentBudgetExceeded);
+        out.writeVInt(policyApplied.size());
+        for (Map.Entry<PIIConfiguration.ScanLimits.OversizePolicy, Long> entry : policyApplied.entrySet()) {
+            out.writeEnum(entry.getKey());
+            out.writeVLong(entry.getValue());
+        }
+        out.writeVInt(offloadInFlight);
+        out.writeVInt(offloadQueued);
+        out.writeVLong(offloadRejected);
+    }
+
+    @Override
+    public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+        builder.startObject("scan_budget");
+        builder.field("field_budget_exceeded", fieldBudgetExceeded);
+        builder.field("document_budget_exceeded", documentBudgetExceeded);
+        builder.startObject("oversize_policy_applied");
+        for (Map.Entry<PIIConfiguration.ScanLimits.OversizePolicy, Long> entry : policyApplied.entrySet()) {
+            builder.field(entry.getKey().toString(), entry.getValue());
+        }
+        builder.endObject();
+        builder.endObject();
+        builder.startObject("offload");
+        builder.field("in_flight", offloadInFlight);
+        builder.field("queued", offloadQueued);
+        builder.field("rejected", offloadRejected);
+        builder.endObject();
+        return builder;
+    }
+
+    public long getFieldBudgetExceeded() {
+        return fieldBudgetExceeded;
+    }
+
+    public long getDocumentBudgetExceeded() {
+        return documentBudgetExceeded;
+    }
+
+    public long getPolicyApplied(PIIConfiguration.ScanLimits.OversizePolicy policy) {
+        return policyApplied.getOrDefault(policy, 0L);
+    }
+
+    public int getOffloadInFlight() {
+        return offloadInFlight;
+    }
+
+    public int getOffloadQueued() {
+        return offloadQueued;
+    }
+
+    public long getOffloadRejected() {
+        return offloadRejected;
+    }
+}
@@ -0,0 +1,23 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.plugin.piimasking.stats;
+
+import org.opensearch.action.ActionType;
+
+/**
+ * Collects the PII masking counters of every node
+ */
+public class PIIMaskingStatsAction extends ActionType<PIIMaskingStatsResponse> {
+
+    public static final String NAME = "cluster:monitor/pii_masking/stats";
+    public static final PIIMaskingStatsAction INSTANCE = new PIIMaskingStatsAction();
+
+    private PIIMaskingStatsAction() {
+        super(NAME, PIIMaskingStatsResponse::new);
+    }
+}
@@ -0,0 +1,27 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.plugin.piimasking.stats;
+
+import org.opensearch.action.support.nodes.BaseNodesRequest;
+import org.opensearch.core.common.io.stream.StreamInput;
+
+import java.io.IOException;
+
+/**
+ * Request for the PII masking counters of the given nodes, or of all nodes if none are given
+ */
+public class PIIMaskingStatsRequest extends BaseNodesRequest<PIIMaskingStatsRequest> {
+
+    public PIIMaskingStatsRequest(String... nodesIds) {
+        super(nodesIds);
+    }
+
+    public PIIMaskingStatsRequest(StreamInput in) throws IOException {
+        super(in);
+    }
+}
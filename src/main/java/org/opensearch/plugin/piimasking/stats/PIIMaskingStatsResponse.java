@@ -0,0 +1,57 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.plugin.piimasking.stats;
+
+import org.opensearch.action.FailedNodeException;
+import org.opensearch.action.support.nodes.BaseNodesResponse;
+import org.opensearch.cluster.ClusterName;
+import org.opensearch.core.common.io.stream.StreamInput;
+import org.opensearch.core.common.io.stream.StreamOutput;
+import org.opensearch.core.xcontent.ToXContentFragment;
+import org.opensearch.core.xcontent.XContentBuilder;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * PII masking counters of each node, keyed by node id
+ */
+public class PIIMaskingStatsResponse extends BaseNodesResponse<PIIMaskingNodeStats> implements ToXContentFragment {
+
+    public PIIMaskingStatsResponse(ClusterName clusterName, List<PIIMaskingNodeStats> nodes,
+                                   List<FailedNodeException> failures) {
+        super(clusterName, nodes, failures);
+    }
+
+    public PIIMaskingStatsResponse(StreamInput in) throws IOException {
+        super(in);
+    }
+
+    @Override
+    protected List<PIIMaskingNodeStats> readNodesFrom(StreamInput in) throws IOException {
+        return in.readList(PIIMaskingNodeStats::new);
+    }
+
+    @Override
+    protected void writeNodesTo(StreamOutput out, List<PIIMaskingNodeStats> nodes) throws IOException {
+        out.writeList(nodes);
+    }
+
+    @Override
+    public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+        builder.startObject("nodes");
+        for (PIIMaskingNodeStats node : getNodes()) {
+            builder.startObject(node.getNode().getId());
+            builder.field("name", node.getNode().getName());
+            node.toXContent(builder, params);
+            builder.endObject();
+        }
+        builder.endObject();
+        return builder;
+    }
+}
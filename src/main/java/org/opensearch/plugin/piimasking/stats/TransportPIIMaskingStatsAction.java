@@ -0,0 +1,75 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.plugin.piimasking.stats;
+
+import org.opensearch.action.FailedNodeException;
+import org.opensearch.action.support.ActionFilters;
+import org.opensearch.action.support.nodes.TransportNodesAction;
+import org.opensearch.cluster.service.ClusterService;
+import org.opensearch.common.inject.Inject;
+import org.opensearch.core.common.io.stream.StreamInput;
+import org.opensearch.plugin.piimasking.processor.OffloadExecutor;
+import org.opensearch.plugin.piimasking.processor.PIIMaskingProcessor;
+import org.opensearch.threadpool.ThreadPool;
+import org.opensearch.transport.TransportRequest;
+import org.opensearch.transport.TransportService;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Reads the scan budget and offload counters on each node and gathers them into one response
+ */
+public class TransportPIIMaskingStatsAction extends TransportNodesAction<PIIMaskingStatsRequest,
+    PIIMaskingStatsResponse, TransportPIIMaskingStatsAction.NodeRequest, PIIMaskingNodeStats> {
+
+    private final OffloadExecutor offloadExecutor;
+
+    @Inject
+    public TransportPIIMaskingStatsAction(ThreadPool threadPool, ClusterService clusterService,
+                                          TransportService transportService, ActionFilters actionFilters,
+                                          OffloadExecutor offloadExecutor) {
+        super(PIIMaskingStatsAction.NAME, threadPool, clusterService, transportService, actionFilters,
+              PIIMaskingStatsRequest::new, NodeRequest::new, ThreadPool.Names.MANAGEMENT, PIIMaskingNodeStats.class);
+        this.offloadExecutor = offloadExecutor;
+    }
+
+    @Override
+    protected PIIMaskingStatsResponse newResponse(PIIMaskingStatsRequest request, List<PIIMaskingNodeStats> nodes,
+                                                  List<FailedNodeException> failures) {
+        return new PIIMaskingStatsResponse(clusterService.getClusterName(), nodes, failures);
+    }
+
+    @Override
+    protected NodeRequest newNodeRequest(PIIMaskingStatsRequest request) {
+        return new NodeRequest();
+    }
+
+    @Override
+    protected PIIMaskingNodeStats newNodeResponse(StreamInput in) throws IOException {
+        return new PIIMaskingNodeStats(in);
+    }
+
+    @Override
+    protected PIIMaskingNodeStats nodeOperation(NodeRequest request) {
+        return new PIIMaskingNodeStats(clusterService.localNode(), PIIMaskingProcessor.getScanBudgetStats(),
+                                       offloadExecutor);
+    }
+
+    /**
+     * Per-node request; the counters take no parameters
+     */
+    public static class NodeRequest extends TransportRequest {
+
+        public NodeRequest() {}
+
+        public NodeRequest(StreamInput in) throws IOException {
+            super(in);
+        }
+    }
+}
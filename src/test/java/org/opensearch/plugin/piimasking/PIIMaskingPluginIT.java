@@ -12,6 +12,9 @@ import org.apache.hc.core5.http.ParseException;
 import org.apache.hc.core5.http.io.entity.EntityUtils;
 import org.opensearch.client.Request;
 import org.opensearch.client.Response;
+import org.opensearch.client.ResponseException;
+import org.opensearch.common.xcontent.XContentHelper;
+import org.opensearch.common.xcontent.XContentType;
 import org.opensearch.plugins.Plugin;
 import org.opensearch.test.OpenSearchIntegTestCase;
 
@@ -19,6 +22,7 @@ import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Map;
 
 import static org.hamcrest.Matchers.containsString;
 
@@ -38,4 +42,57 @@ public class PIIMaskingPluginIT extends OpenSearchIntegTestCase {
         logger.info("response body: {}", body);
         assertThat(body, containsString("pii-masking"));
     }
+
+    public void testRemaskRewritesIndexedDocuments() throws Exception {
+        createIndex("remask-logs");
+        for (int i = 0; i < 5; i++) {
+            client().prepareIndex("remask-logs").setId(String.valueOf(i))
+                .setSource("message", "Customer SSN: 123-45-678" + i).get();
+        }
+        refresh("remask-logs");
+
+        Response response = getRestClient().performRequest(
+            new Request("POST", "/_plugins/pii-masking/_remask/remask-logs?slices=2&batch_size=2"));
+        assertEquals("Should accept the job", 202, response.getStatusLine().getStatusCode());
+        Map<String, Object> accepted = responseAsMap(response);
+        String jobId = (String) accepted.get("job_id");
+        assertNotNull("Should return the job id", jobId);
+        assertNotNull("Should return the task", accepted.get("task"));
+
+        assertBusy(() -> {
+            Map<String, Object> status = responseAsMap(getRestClient().performRequest(
+                new Request("GET", "/_plugins/pii-masking/_remask/remask-logs/_jobs/" + jobId)));
+            assertEquals("Should complete", "completed", status.get("status"));
+        });
+
+        for (int i = 0; i < 5; i++) {
+            Map<String, Object> source = client().prepareGet("remask-logs", String.valueOf(i)).get().getSourceAsMap();
+            assertEquals("Should rewrite the stored document", "Customer SSN: ***-**-****", source.get("message"));
+        }
+
+        createIndex("remask-other");
+        assertStatus("Should not report a job under another index", 404,
+            new Request("GET", "/_plugins/pii-masking/_remask/remask-other/_jobs/" + jobId));
+    }
+
+    public void testRemaskReportsFailuresBeforeAccepting() throws Exception {
+        createIndex("remask-errors");
+
+        assertStatus("Should reject invalid parameters", 400,
+            new Request("POST", "/_plugins/pii-masking/_remask/remask-errors?slices=0"));
+        assertStatus("Should not resume an unknown job", 404,
+            new Request("POST", "/_plugins/pii-masking/_remask/remask-errors?job_id=missing"));
+        assertStatus("Should not report an unknown job", 404,
+            new Request("GET", "/_plugins/pii-masking/_remask/remask-errors/_jobs/missing"));
+    }
+
+    private void assertStatus(String message, int expected, Request request) {
+        ResponseException e = expectThrows(ResponseException.class, () -> getRestClient().performRequest(request));
+        assertEquals(message, expected, e.getResponse().getStatusLine().getStatusCode());
+    }
+
+    private static Map<String, Object> responseAsMap(Response response) throws IOException, ParseException {
+        String body = EntityUtils.toString(response.getEntity(), StandardCharsets.UTF_8);
+        return XContentHelper.convertToMap(XContentType.JSON.xContent(), body, false);
+    }
 }
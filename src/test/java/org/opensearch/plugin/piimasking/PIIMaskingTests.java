@@ -7,13 +7,32 @@
  */
 package org.opensearch.plugin.piimasking;
 
+import org.opensearch.Version;
+import org.opensearch.cluster.node.DiscoveryNode;
+import org.opensearch.common.io.stream.BytesStreamOutput;
+import org.opensearch.common.xcontent.XContentFactory;
+import org.opensearch.common.xcontent.XContentHelper;
+import org.opensearch.common.xcontent.XContentType;
+import org.opensearch.core.common.bytes.BytesReference;
+import org.opensearch.core.concurrency.OpenSearchRejectedExecutionException;
+import org.opensearch.core.xcontent.ToXContent;
+import org.opensearch.core.xcontent.XContentBuilder;
+import org.opensearch.ingest.IngestDocument;
+import org.opensearch.ingest.Processor;
 import org.opensearch.plugin.piimasking.detector.PIIDetector;
 import org.opensearch.plugin.piimasking.config.PIIConfiguration;
+import org.opensearch.plugin.piimasking.processor.OffloadExecutor;
+import org.opensearch.plugin.piimasking.processor.PIIMaskingProcessor;
+import org.opensearch.plugin.piimasking.stats.PIIMaskingNodeStats;
 import org.opensearch.test.OpenSearchTestCase;
 
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class PIIMaskingTests extends OpenSearchTestCase {
     
@@ -87,4 +106,465 @@ public class PIIMaskingTests extends OpenSearchTestCase {
         assertEquals("Should not change text", testText, result.getMaskedText());
         assertEquals("Should have no detections", 0, result.getDetections().size());
     }
+    
+    public void testTriggerCharactersGateRules() {
+        Map<String, PIIConfiguration.MaskingRule> rules = new HashMap<>();
+        rules.put("email", new PIIConfiguration.MaskingRule(
+            "[a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,}", "****@example.com", 0, "@"));
+        rules.put("ssn", new PIIConfiguration.MaskingRule(
+            "\\b\\d{3}-\\d{2}-\\d{4}\\b", "***-**-****", 0, "0123456789"));
+        
+        PIIConfiguration config = new PIIConfiguration(
+            true, "audit-test", rules, List.of("message"), false
+        );
+        
+        PIIDetector detector = new PIIDetector(config);
+        
+        PIIDetector.PIIMaskingResult result = detector.detectAndMask("Mail john.doe@example.com, SSN 123-45-6789");
+        assertEquals("Should mask both when triggers are present", 
+            "Mail ****@example.com, SSN ***-**-****", result.getMaskedText());
+        assertEquals("Should detect both", 2, result.getDetections().size());
+        
+        assertFalse("Should skip rules without their triggers", 
+            detector.containsPII("no addresses or numbers in this line"));
+        assertTrue("Should still match when triggers are present", detector.containsPII("SSN 123-45-6789"));
+    }
+    
+    public void testTriggerWindowsMatchWholeTextScan() {
+        Map<String, PIIConfiguration.MaskingRule> windowed = new HashMap<>();
+        windowed.put("ssn", new PIIConfiguration.MaskingRule(
+            "\\b\\d{3}-\\d{2}-\\d{4}\\b", "***-**-****", 0, "0123456789", 11));
+        Map<String, PIIConfiguration.MaskingRule> whole = new HashMap<>();
+        whole.put("ssn", new PIIConfiguration.MaskingRule(
+            "\\b\\d{3}-\\d{2}-\\d{4}\\b", "***-**-****", 0, "0123456789"));
+        
+        PIIDetector windowedDetector = new PIIDetector(new PIIConfiguration(
+            true, "audit-test", windowed, List.of("message"), false));
+        PIIDetector wholeDetector = new PIIDetector(new PIIConfiguration(
+            true, "audit-test", whole, List.of("message"), false));
+        
+        // Matches at the text edges, next to other digits, and word boundaries just outside a window
+        String[] texts = {
+            "123-45-6789",
+            "2025-08-25T18:31:40 request from 123-45-6789 took 12ms",
+            "ids 1123-45-6789 and 123-45-67890 are not SSNs, 123-45-6789 is",
+            "a123-45-6789 123-45-6789b 123-45-6789",
+            "no numbers here at all"
+        };
+        for (String text : texts) {
+            assertEquals("Windowed scan should match a whole text scan for [" + text + "]",
+                wholeDetector.detectAndMask(text).getMaskedText(), windowedDetector.detectAndMask(text).getMaskedText());
+            assertEquals("containsPII should agree for [" + text + "]",
+                wholeDetector.containsPII(text), windowedDetector.containsPII(text));
+        }
+        assertEquals("Should mask only the SSN",
+            "2025-08-25T18:31:40 request from ***-**-**** took 12ms",
+            windowedDetector.detectAndMask(texts[1]).getMaskedText());
+    }
+    
+    public void testValidatesTriggerRuleSettings() {
+        expectThrows(IllegalArgumentException.class, 
+            () -> new PIIConfiguration.MaskingRule("\\d+", "*", 0, "0123456789", 0));
+        assertFalse("Should flag a pattern that cannot contain its triggers", 
+            PIIDetector.patternReferencesTriggers("[a-z]+", "@"));
+        assertTrue("Should accept a digit class for digit triggers", 
+            PIIDetector.patternReferencesTriggers("\\b\\d{3}\\b", "0123456789"));
+    }
+    
+    public void testMaskedOutputIsNotRescanned() {
+        // The second rule would match the mask inserted by the first if rules were chained
+        Map<String, PIIConfiguration.MaskingRule> rules = new HashMap<>();
+        rules.put("ssn", new PIIConfiguration.MaskingRule("\\b\\d{3}-\\d{2}-\\d{4}\\b", "XXX-XX-XXXX"));
+        rules.put("token", new PIIConfiguration.MaskingRule("XXX", "[token]"));
+        
+        PIIConfiguration config = new PIIConfiguration(
+            true, "audit-test", rules, List.of("message"), false
+        );
+        
+        PIIDetector detector = new PIIDetector(config);
+        PIIDetector.PIIMaskingResult result = detector.detectAndMask("SSN: 123-45-6789");
+        
+        assertEquals("Mask should not be rescanned", "SSN: XXX-XX-XXXX", result.getMaskedText());
+        assertEquals("Should detect one SSN", 1, result.getDetections().size());
+    }
+    
+    public void testOverlapResolvedByPriority() {
+        Map<String, PIIConfiguration.MaskingRule> rules = new HashMap<>();
+        rules.put("ssn", new PIIConfiguration.MaskingRule("\\b\\d{3}-\\d{2}-\\d{4}\\b", "***-**-****", 20));
+        rules.put("digits", new PIIConfiguration.MaskingRule("\\d{3}-\\d{2}-\\d{4} ref \\d+", "[ref]", 10));
+        
+        PIIConfiguration config = new PIIConfiguration(
+            true, "audit-test", rules, List.of("message"), false, PIIConfiguration.OverlapStrategy.PRIORITY
+        );
+        
+        PIIDetector detector = new PIIDetector(config);
+        PIIDetector.PIIMaskingResult result = detector.detectAndMask("id 123-45-6789 ref 42");
+        
+        assertEquals("Higher priority rule should win", "id ***-**-**** ref 42", result.getMaskedText());
+        assertEquals("Should keep only the winning span", 1, result.getDetections().size());
+        assertEquals("Should identify SSN type", "ssn", result.getDetections().get(0).getType());
+    }
+    
+    public void testOverlapResolvedByLongestMatch() {
+        Map<String, PIIConfiguration.MaskingRule> rules = new HashMap<>();
+        rules.put("ssn", new PIIConfiguration.MaskingRule("\\b\\d{3}-\\d{2}-\\d{4}\\b", "***-**-****", 20));
+        rules.put("digits", new PIIConfiguration.MaskingRule("\\d{3}-\\d{2}-\\d{4} ref \\d+", "[ref]", 10));
+        
+        PIIConfiguration config = new PIIConfiguration(
+            true, "audit-test", rules, List.of("message"), false, PIIConfiguration.OverlapStrategy.LONGEST_MATCH
+        );
+        
+        PIIDetector detector = new PIIDetector(config);
+        PIIDetector.PIIMaskingResult result = detector.detectAndMask("id 123-45-6789 ref 42");
+        
+        assertEquals("Longest match should win", "id [ref]", result.getMaskedText());
+        assertEquals("Should keep only the winning span", 1, result.getDetections().size());
+        assertEquals("Should identify digits type", "digits", result.getDetections().get(0).getType());
+    }
+    
+    public void testOversizedFieldScansPrefixOnly() throws Exception {
+        PIIConfiguration.ScanLimits limits = new PIIConfiguration.ScanLimits(
+            16, -1, PIIConfiguration.ScanLimits.OversizePolicy.SCAN_PREFIX, "[TRUNCATED]", "pii_slow_path"
+        );
+        
+        IngestDocument document = executeWithLimits(limits, "SSN: 123-45-6789 and then a very long tail");
+        
+        assertEquals("Should mask the prefix and truncate the rest", 
+            "SSN: ***-**-****[TRUNCATED]", document.getFieldValue("message", String.class));
+    }
+    
+    public void testScanPrefixCutInsidePIIDropsPartialToken() throws Exception {
+        PIIConfiguration.ScanLimits limits = new PIIConfiguration.ScanLimits(
+            12, -1, PIIConfiguration.ScanLimits.OversizePolicy.SCAN_PREFIX, "[TRUNCATED]", "pii_slow_path"
+        );
+        
+        // The 12 byte budget ends at "SSN: 123-45-"
+        IngestDocument document = executeWithLimits(limits, "SSN: 123-45-6789 and then a very long tail");
+        assertEquals("Should not keep part of the SSN", 
+            "SSN: [TRUNCATED]", document.getFieldValue("message", String.class));
+        
+        // Digit groups of a card number count as one token
+        document = executeWithLimits(limits, "Card 4532 1234 5678 9012");
+        assertEquals("Should not keep leading card digit groups", 
+            "Card [TRUNCATED]", document.getFieldValue("message", String.class));
+    }
+    
+    public void testOversizedFieldBlocksDocument() {
+        PIIConfiguration.ScanLimits limits = new PIIConfiguration.ScanLimits(
+            -1, 8, PIIConfiguration.ScanLimits.OversizePolicy.BLOCK, "[TRUNCATED]", "pii_slow_path"
+        );
+        
+        long blockedBefore = PIIMaskingProcessor.getScanBudgetStats()
+            .getPolicyApplied(PIIConfiguration.ScanLimits.OversizePolicy.BLOCK);
+        expectThrows(IllegalArgumentException.class, () -> executeWithLimits(limits, "SSN: 123-45-6789"));
+        assertEquals("Should count the blocked document", blockedBefore + 1, PIIMaskingProcessor.getScanBudgetStats()
+            .getPolicyApplied(PIIConfiguration.ScanLimits.OversizePolicy.BLOCK));
+    }
+    
+    public void testOversizedFieldRoutedUnscanned() throws Exception {
+        PIIConfiguration.ScanLimits limits = new PIIConfiguration.ScanLimits(
+            8, -1, PIIConfiguration.ScanLimits.OversizePolicy.ROUTE, "[TRUNCATED]", "pii_slow_path"
+        );
+        
+        IngestDocument document = executeWithLimits(limits, "SSN: 123-45-6789");
+        assertEquals("Should leave the field for the slow path", 
+            "SSN: 123-45-6789", document.getFieldValue("message", String.class));
+        assertEquals("Should record the routed field", 
+            List.of("message"), document.getFieldValue("pii_slow_path", List.class));
+    }
+    
+    public void testRouteBlocksInStrictMode() throws Exception {
+        Map<String, PIIConfiguration.MaskingRule> rules = new HashMap<>();
+        rules.put("ssn", new PIIConfiguration.MaskingRule("\\b\\d{3}-\\d{2}-\\d{4}\\b", "***-**-****"));
+        PIIConfiguration.ScanLimits limits = new PIIConfiguration.ScanLimits(
+            8, -1, PIIConfiguration.ScanLimits.OversizePolicy.ROUTE, "[TRUNCATED]", "pii_slow_path"
+        );
+        
+        PIIConfiguration previous = PIIMaskingProcessor.getGlobalConfiguration();
+        PIIMaskingProcessor.updateGlobalConfiguration(new PIIConfiguration(
+            true, "audit-test", rules, List.of("message"), true, PIIConfiguration.OverlapStrategy.PRIORITY, limits));
+        try {
+            Map<String, Object> source = new HashMap<>();
+            source.put("message", "SSN: 123-45-6789");
+            IngestDocument document = new IngestDocument(source, new HashMap<>());
+            Processor processor = new PIIMaskingProcessor.Factory(null).create(null, "test", null, new HashMap<>());
+            
+            IllegalArgumentException e = expectThrows(IllegalArgumentException.class, () -> processor.execute(document));
+            assertTrue("Should explain the block", e.getMessage().contains("strict mode"));
+            assertFalse("Should not tag the blocked document", document.hasField("pii_slow_path"));
+        } finally {
+            PIIMaskingProcessor.updateGlobalConfiguration(previous);
+        }
+    }
+    
+    public void testNodeStatsReportBudgetAndOffloadCounters() throws Exception {
+        PIIConfiguration.ScanLimits limits = new PIIConfiguration.ScanLimits(
+            -1, 8, PIIConfiguration.ScanLimits.OversizePolicy.MASK_FIELD, "[TRUNCATED]", "pii_slow_path"
+        );
+        DiscoveryNode node = new DiscoveryNode("node-1", buildNewFakeTransportAddress(), Version.CURRENT);
+        
+        try (OffloadExecutor offloadExecutor = new OffloadExecutor()) {
+            long before = new PIIMaskingNodeStats(node, PIIMaskingProcessor.getScanBudgetStats(), offloadExecutor)
+                .getPolicyApplied(PIIConfiguration.ScanLimits.OversizePolicy.MASK_FIELD);
+            executeWithLimits(limits, "SSN: 123-45-6789");
+            assertFalse("Should reject with no room", offloadExecutor.trySubmit(() -> {}, 0, 0));
+            
+            PIIMaskingNodeStats stats = new PIIMaskingNodeStats(node, PIIMaskingProcessor.getScanBudgetStats(), 
+                offloadExecutor);
+            BytesStreamOutput out = new BytesStreamOutput();
+            stats.writeTo(out);
+            PIIMaskingNodeStats restored = new PIIMaskingNodeStats(out.bytes().streamInput());
+            
+            assertEquals("Should keep the node", "node-1", restored.getNode().getId());
+            assertEquals("Should count the masked field", before + 1, 
+                restored.getPolicyApplied(PIIConfiguration.ScanLimits.OversizePolicy.MASK_FIELD));
+            assertEquals("Should keep the document budget counter", stats.getDocumentBudgetExceeded(), 
+                restored.getDocumentBudgetExceeded());
+            assertEquals("Should count the rejected task", 1, restored.getOffloadRejected());
+            assertEquals("Should have nothing in flight", 0, restored.getOffloadInFlight());
+            
+            XContentBuilder builder = restored.toXContent(XContentFactory.jsonBuilder().startObject(), 
+                ToXContent.EMPTY_PARAMS).endObject();
+            Map<String, Object> map = XContentHelper.convertToMap(BytesReference.bytes(builder), false, 
+                XContentType.JSON).v2();
+            assertEquals("Should report offload counters", 1, 
+                ((Map<?, ?>) map.get("offload")).get("rejected"));
+            assertTrue("Should report counters per policy", ((Map<?, ?>) ((Map<?, ?>) map.get("scan_budget"))
+                .get("oversize_policy_applied")).containsKey("mask_field"));
+        }
+    }
+    
+    public void testOffloadedExecutionMasksOnVirtualThread() throws Exception {
+        Map<String, PIIConfiguration.MaskingRule> rules = new HashMap<>();
+        rules.put("ssn", new PIIConfiguration.MaskingRule("\\b\\d{3}-\\d{2}-\\d{4}\\b", "***-**-****"));
+        
+        PIIConfiguration config = new PIIConfiguration(
+            true, "audit-test", rules, List.of("message"), false, PIIConfiguration.OverlapStrategy.PRIORITY,
+            PIIConfiguration.ScanLimits.UNLIMITED,
+            new PIIConfiguration.OffloadSettings(PIIConfiguration.OffloadSettings.Mode.VIRTUAL_THREADS, 10)
+        );
+        
+        PIIConfiguration previous = PIIMaskingProcessor.getGlobalConfiguration();
+        PIIMaskingProcessor.updateGlobalConfiguration(config);
+        try (OffloadExecutor offloadExecutor = new OffloadExecutor()) {
+            Map<String, Object> source = new HashMap<>();
+            source.put("message", "SSN: 123-45-6789");
+            
+            CountDownLatch latch = new CountDownLatch(1);
+            AtomicReference<IngestDocument> result = new AtomicReference<>();
+            AtomicReference<Boolean> virtual = new AtomicReference<>();
+            new PIIMaskingProcessor.Factory(null, offloadExecutor)
+                .create(null, "test", null, new HashMap<>())
+                .execute(new IngestDocument(source, new HashMap<>()), (document, e) -> {
+                    result.set(document);
+                    virtual.set(Thread.currentThread().isVirtual());
+                    latch.countDown();
+                });
+            
+            assertTrue("Should complete", latch.await(10, TimeUnit.SECONDS));
+            assertTrue("Should run on a virtual thread", virtual.get());
+            assertEquals("Should mask SSN", "SSN: ***-**-****", result.get().getFieldValue("message", String.class));
+        } finally {
+            PIIMaskingProcessor.updateGlobalConfiguration(previous);
+        }
+    }
+    
+    public void testErrorCompletesDocumentAndReleasesSlot() throws Exception {
+        PIIConfiguration config = new PIIConfiguration(
+            true, "audit-test", new HashMap<>(), List.of("message"), false, PIIConfiguration.OverlapStrategy.PRIORITY,
+            PIIConfiguration.ScanLimits.UNLIMITED,
+            new PIIConfiguration.OffloadSettings(PIIConfiguration.OffloadSettings.Mode.VIRTUAL_THREADS, 1)
+        );
+        
+        PIIConfiguration previous = PIIMaskingProcessor.getGlobalConfiguration();
+        PIIMaskingProcessor.updateGlobalConfiguration(config);
+        // The error still ends its thread; catch it there instead of failing the suite
+        Thread.UncaughtExceptionHandler defaultHandler = Thread.getDefaultUncaughtExceptionHandler();
+        AtomicReference<Throwable> uncaught = new AtomicReference<>();
+        Thread.setDefaultUncaughtExceptionHandler((thread, e) -> uncaught.set(e));
+        try (OffloadExecutor offloadExecutor = new OffloadExecutor()) {
+            PIIMaskingProcessor processor = new PIIMaskingProcessor("test", null, config, offloadExecutor, null) {
+                @Override
+                public IngestDocument execute(IngestDocument ingestDocument) {
+                    if ("boom".equals(ingestDocument.getFieldValue("message", String.class))) {
+                        throw new StackOverflowError();
+                    }
+                    return ingestDocument;
+                }
+            };
+            
+            // The second document waits in the queue behind the failing one
+            CountDownLatch latch = new CountDownLatch(2);
+            List<Exception> failures = new CopyOnWriteArrayList<>();
+            for (String message : List.of("boom", "fine")) {
+                Map<String, Object> source = new HashMap<>();
+                source.put("message", message);
+                processor.execute(new IngestDocument(source, new HashMap<>()), (document, e) -> {
+                    if (e != null) {
+                        failures.add(e);
+                    }
+                    latch.countDown();
+                });
+            }
+            
+            assertTrue("Should complete both documents", latch.await(10, TimeUnit.SECONDS));
+            assertEquals("Should fail only the document that hit the error", 1, failures.size());
+            assertTrue("Should carry the error", failures.get(0).getCause() instanceof StackOverflowError);
+            assertBusy(() -> assertEquals("Should release the slot", 0, offloadExecutor.getInFlight()));
+            assertEquals("Should drain the queue", 0, offloadExecutor.getQueued());
+            assertBusy(() -> assertTrue("Should rethrow the error", uncaught.get() instanceof StackOverflowError));
+        } finally {
+            Thread.setDefaultUncaughtExceptionHandler(defaultHandler);
+            PIIMaskingProcessor.updateGlobalConfiguration(previous);
+        }
+    }
+    
+    public void testOffloadQueuesBeforeRejecting() throws Exception {
+        PIIConfiguration config = new PIIConfiguration(
+            true, "audit-test", new HashMap<>(), List.of("message"), false, PIIConfiguration.OverlapStrategy.PRIORITY,
+            PIIConfiguration.ScanLimits.UNLIMITED,
+            new PIIConfiguration.OffloadSettings(PIIConfiguration.OffloadSettings.Mode.VIRTUAL_THREADS, 1, 1)
+        );
+        
+        PIIConfiguration previous = PIIMaskingProcessor.getGlobalConfiguration();
+        PIIMaskingProcessor.updateGlobalConfiguration(config);
+        try (OffloadExecutor offloadExecutor = new OffloadExecutor()) {
+            Processor processor = new PIIMaskingProcessor.Factory(null, offloadExecutor)
+                .create(null, "test", null, new HashMap<>());
+            
+            // The first document holds the only in-flight slot until released
+            CountDownLatch release = new CountDownLatch(1);
+            processor.execute(new IngestDocument(new HashMap<>(), new HashMap<>()), (document, e) -> {
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            
+            // The second waits in the queue
+            CountDownLatch queuedDone = new CountDownLatch(1);
+            AtomicReference<Exception> queuedFailure = new AtomicReference<>();
+            processor.execute(new IngestDocument(new HashMap<>(), new HashMap<>()), (document, e) -> {
+                queuedFailure.set(e);
+                queuedDone.countDown();
+            });
+            assertEquals("Should queue the second document", 1, offloadExecutor.getQueued());
+            
+            // The third finds the queue full and is rejected right away
+            AtomicReference<Exception> rejected = new AtomicReference<>();
+            processor.execute(new IngestDocument(new HashMap<>(), new HashMap<>()), (document, e) -> rejected.set(e));
+            assertTrue("Should reject when the queue is full", 
+                rejected.get() instanceof OpenSearchRejectedExecutionException);
+            assertEquals("Should count the rejection", 1, offloadExecutor.getRejected());
+            
+            release.countDown();
+            assertTrue("Should run the queued document", queuedDone.await(10, TimeUnit.SECONDS));
+            assertNull("Queued document should succeed", queuedFailure.get());
+        } finally {
+            PIIMaskingProcessor.updateGlobalConfiguration(previous);
+        }
+    }
+    
+    public void testMaskFieldsReportsModification() throws Exception {
+        PIIMaskingProcessor processor = (PIIMaskingProcessor) new PIIMaskingProcessor.Factory(null)
+            .create(null, "test", null, new HashMap<>());
+        
+        Map<String, Object> source = new HashMap<>();
+        source.put("message", "SSN: 123-45-6789");
+        IngestDocument document = new IngestDocument(source, new HashMap<>());
+        assertTrue("Should report masked document as modified", processor.maskFields(document));
+        assertEquals("Should mask SSN", "SSN: ***-**-****", document.getFieldValue("message", String.class));
+        
+        // Already masked content is left unchanged, so re-masking is idempotent
+        assertFalse("Should not modify already masked document", processor.maskFields(document));
+    }
+    
+    public void testRemaskMasksInStrictMode() throws Exception {
+        Map<String, PIIConfiguration.MaskingRule> rules = new HashMap<>();
+        rules.put("ssn", new PIIConfiguration.MaskingRule("\\b\\d{3}-\\d{2}-\\d{4}\\b", "***-**-****"));
+        PIIConfiguration config = new PIIConfiguration(true, "audit-test", rules, List.of("message"), true);
+        
+        PIIConfiguration previous = PIIMaskingProcessor.getGlobalConfiguration();
+        PIIMaskingProcessor.updateGlobalConfiguration(config);
+        try {
+            PIIMaskingProcessor processor = (PIIMaskingProcessor) new PIIMaskingProcessor.Factory(null)
+                .create(null, "test", null, new HashMap<>());
+            Map<String, Object> source = new HashMap<>();
+            source.put("message", "SSN: 123-45-6789");
+            IngestDocument document = new IngestDocument(source, new HashMap<>());
+            
+            expectThrows(IllegalArgumentException.class, () -> processor.maskFields(document));
+            assertTrue("Should mask stored documents despite strict mode", processor.maskFields(document, true));
+            assertEquals("Should mask SSN", "SSN: ***-**-****", document.getFieldValue("message", String.class));
+        } finally {
+            PIIMaskingProcessor.updateGlobalConfiguration(previous);
+        }
+    }
+    
+    public void testRemaskIsIdempotentUnderEveryOversizePolicy() throws Exception {
+        Map<String, PIIConfiguration.MaskingRule> rules = new HashMap<>();
+        rules.put("ssn", new PIIConfiguration.MaskingRule("\\b\\d{3}-\\d{2}-\\d{4}\\b", "***-**-****"));
+        
+        PIIConfiguration previous = PIIMaskingProcessor.getGlobalConfiguration();
+        try {
+            for (PIIConfiguration.ScanLimits.OversizePolicy policy : PIIConfiguration.ScanLimits.OversizePolicy.values()) {
+                PIIConfiguration.ScanLimits limits = new PIIConfiguration.ScanLimits(
+                    20, 40, policy, "[TRUNCATED]", "pii_slow_path");
+                PIIMaskingProcessor.updateGlobalConfiguration(new PIIConfiguration(
+                    true, "audit-test", rules, List.of("message", "details"), false,
+                    PIIConfiguration.OverlapStrategy.PRIORITY, limits));
+                PIIMaskingProcessor processor = (PIIMaskingProcessor) new PIIMaskingProcessor.Factory(null)
+                    .create(null, "test", null, new HashMap<>());
+                
+                Map<String, Object> source = new HashMap<>();
+                source.put("message", "SSN: 123-45-6789 followed by a long tail");
+                source.put("details", "SSN: 987-65-4321");
+                IngestDocument document = new IngestDocument(source, new HashMap<>());
+                Map<String, Object> original = new HashMap<>(document.getSourceAndMetadata());
+                
+                if (policy == PIIConfiguration.ScanLimits.OversizePolicy.MASK_FIELD) {
+                    assertTrue("First pass should mask under " + policy, processor.maskFields(document, true));
+                    Map<String, Object> firstPass = new HashMap<>(document.getSourceAndMetadata());
+                    assertEquals("Should replace the oversized field", "[TRUNCATED]", firstPass.get("message"));
+                    assertEquals("Should mask the other field", "SSN: ***-**-****", firstPass.get("details"));
+                    
+                    assertFalse("Second pass should change nothing under " + policy, processor.maskFields(document, true));
+                    assertEquals("Second pass should give the same result under " + policy, 
+                        firstPass, document.getSourceAndMetadata());
+                } else {
+                    // Oversized values are never truncated or tagged; the document is skipped every time
+                    for (int pass = 0; pass < 2; pass++) {
+                        expectThrows(IllegalArgumentException.class, () -> processor.maskFields(document, true));
+                        assertEquals("Should leave the document unchanged under " + policy, 
+                            original, document.getSourceAndMetadata());
+                    }
+                }
+            }
+        } finally {
+            PIIMaskingProcessor.updateGlobalConfiguration(previous);
+        }
+    }
+    
+    private IngestDocument executeWithLimits(PIIConfiguration.ScanLimits limits, String message) throws Exception {
+        Map<String, PIIConfiguration.MaskingRule> rules = new HashMap<>();
+        rules.put("ssn", new PIIConfiguration.MaskingRule("\\b\\d{3}-\\d{2}-\\d{4}\\b", "***-**-****"));
+        
+        PIIConfiguration config = new PIIConfiguration(
+            true, "audit-test", rules, List.of("message"), false, PIIConfiguration.OverlapStrategy.PRIORITY, limits
+        );
+        
+        PIIConfiguration previous = PIIMaskingProcessor.getGlobalConfiguration();
+        PIIMaskingProcessor.updateGlobalConfiguration(config);
+        try {
+            Map<String, Object> source = new HashMap<>();
+            source.put("message", message);
+            IngestDocument document = new IngestDocument(source, new HashMap<>());
+            return new PIIMaskingProcessor.Factory(null)
+                .create(null, "test", null, new HashMap<>())
+                .execute(document);
+        } finally {
+            PIIMaskingProcessor.updateGlobalConfiguration(previous);
+        }
+    }
 }
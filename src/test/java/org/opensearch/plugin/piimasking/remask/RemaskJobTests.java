@@ -0,0 +1,330 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+package org.opensearch.plugin.piimasking.remask;
+
+import org.opensearch.OpenSearchStatusException;
+import org.opensearch.ResourceNotFoundException;
+import org.opensearch.action.ActionRequestValidationException;
+import org.opensearch.common.unit.TimeValue;
+import org.opensearch.common.xcontent.XContentFactory;
+import org.opensearch.common.xcontent.XContentHelper;
+import org.opensearch.common.xcontent.XContentType;
+import org.opensearch.core.common.bytes.BytesReference;
+import org.opensearch.core.rest.RestStatus;
+import org.opensearch.core.xcontent.ToXContent;
+import org.opensearch.core.xcontent.XContentBuilder;
+import org.opensearch.plugin.piimasking.config.PIIConfiguration;
+import org.opensearch.plugin.piimasking.processor.PIIMaskingProcessor;
+import org.opensearch.test.OpenSearchTestCase;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+public class RemaskJobTests extends OpenSearchTestCase {
+
+    private PIIConfiguration previous;
+
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        previous = PIIMaskingProcessor.getGlobalConfiguration();
+        useOversizePolicy(PIIConfiguration.ScanLimits.OversizePolicy.MASK_FIELD);
+    }
+
+    @Override
+    public void tearDown() throws Exception {
+        PIIMaskingProcessor.updateGlobalConfiguration(previous);
+        super.tearDown();
+    }
+
+    public void testMasksOneBatch() throws Exception {
+        FakeRemaskClient client = new FakeRemaskClient();
+        client.addPage(0, document("1", 3, "SSN: 123-45-6789"), document("2", 4, "nothing to see"),
+                       document("3", 5, "SSN: 987-65-4321"));
+        client.conflicting.add("3");
+
+        RemaskCheckpoint checkpoint = newJob(client, "node:1").run(new RemaskRequest("job-1", "logs", 1, 10, 0f, false));
+
+        assertEquals("Should complete", RemaskCheckpoint.Status.COMPLETED, checkpoint.getStatus());
+        assertEquals("Should write only documents with PII", 2, client.written.size());
+        RemaskClient.StoredDocument written = client.written.get(0);
+        assertEquals("Should mask the document", "SSN: ***-**-****", written.getSource().get("message"));
+        assertEquals("Should guard the write by sequence number", 3, written.getSeqNo());
+        assertEquals("Should guard the write by primary term", 1, written.getPrimaryTerm());
+
+        RemaskCheckpoint.SliceCheckpoint slice = checkpoint.getSliceCheckpoints().get(0);
+        assertTrue("Should complete the slice", slice.isCompleted());
+        assertEquals("Should count every document read", 3, slice.getProcessed());
+        assertEquals("Should count the written document", 1, slice.getUpdated());
+        assertEquals("Should count the concurrently updated document", 1, slice.getConflicts());
+        assertEquals("Should clear the scroll", List.of("0-1"), client.clearedScrolls);
+        assertEquals("Should record the task in the checkpoint", "node:1",
+            client.stored.getCheckpoint().getTaskId());
+
+        expectThrows(OpenSearchStatusException.class,
+            () -> newJob(client, "node:2").run(new RemaskRequest("job-1", "logs", 1, 10, 0f, false)));
+    }
+
+    public void testResumeSkipsCompletedSlices() throws Exception {
+        FakeRemaskClient client = new FakeRemaskClient();
+        client.addPage(0, document("1", 0, "SSN: 123-45-6789"));
+        client.addPage(1, document("2", 0, "SSN: 987-65-4321"));
+
+        RemaskCheckpoint stopped = new RemaskCheckpoint("job-1", "logs", 2, 10, 0f);
+        stopped.setTaskId("node:1");
+        stopped.getSliceCheckpoints().get(0).markCompleted();
+        client.stored = new RemaskClient.StoredCheckpoint(stopped, 7, 1);
+
+        client.runningTasks.add("node:1");
+        OpenSearchStatusException e = expectThrows(OpenSearchStatusException.class,
+            () -> newJob(client, "node:2").run(new RemaskRequest("job-1", "logs", 2, 10, 0f, true)));
+        assertEquals("Should not resume a job that is still running", RestStatus.CONFLICT, e.status());
+        assertTrue("Should not scroll while the job is running elsewhere", client.scrolledSlices.isEmpty());
+
+        client.runningTasks.clear();
+        RemaskCheckpoint checkpoint = newJob(client, "node:2").run(new RemaskRequest("job-1", "logs", 2, 10, 0f, true));
+
+        assertEquals("Should complete", RemaskCheckpoint.Status.COMPLETED, checkpoint.getStatus());
+        assertEquals("Should only scroll the incomplete slice", List.of(1), client.scrolledSlices);
+        assertEquals("Should only write documents of the incomplete slice", 1, client.written.size());
+        assertEquals("Should claim the job for the new task", "node:2", checkpoint.getTaskId());
+        assertEquals("Should count the resumed slice", 1, checkpoint.getSliceCheckpoints().get(1).getUpdated());
+    }
+
+    public void testResumeFailsIfClaimedConcurrently() {
+        FakeRemaskClient client = new FakeRemaskClient();
+        RemaskCheckpoint stopped = new RemaskCheckpoint("job-1", "logs", 1, 10, 0f);
+        stopped.setStatus(RemaskCheckpoint.Status.CANCELLED);
+        client.stored = new RemaskClient.StoredCheckpoint(stopped, 7, 1);
+        client.changeBeforeReplace = true;
+
+        OpenSearchStatusException e = expectThrows(OpenSearchStatusException.class,
+            () -> newJob(client, "node:2").run(new RemaskRequest("job-1", "logs", 1, 10, 0f, true)));
+        assertEquals("Should lose the race to the other node", RestStatus.CONFLICT, e.status());
+        assertTrue("Should not scroll a job claimed by another node", client.scrolledSlices.isEmpty());
+    }
+
+    public void testClaimFailsBeforeAnySliceStarts() throws Exception {
+        FakeRemaskClient client = new FakeRemaskClient();
+        client.addPage(0, document("1", 0, "SSN: 123-45-6789"));
+
+        RemaskJob job = newJob(client, "node:1");
+        RemaskCheckpoint claimed = job.claim(new RemaskRequest("job-1", "logs", 1, 10, 0f, false));
+        assertEquals("Should be running once claimed", RemaskCheckpoint.Status.RUNNING, claimed.getStatus());
+        assertEquals("Should record the task before processing", "node:1", client.stored.getCheckpoint().getTaskId());
+        assertTrue("Should not scroll before processing", client.scrolledSlices.isEmpty());
+
+        OpenSearchStatusException e = expectThrows(OpenSearchStatusException.class,
+            () -> newJob(client, "node:2").claim(new RemaskRequest("job-1", "logs", 1, 10, 0f, false)));
+        assertEquals("Should not create the same job twice", RestStatus.CONFLICT, e.status());
+        expectThrows(ResourceNotFoundException.class,
+            () -> newJob(new FakeRemaskClient(), "node:2").claim(new RemaskRequest("job-2", "logs", 1, 10, 0f, true)));
+
+        assertEquals("Should complete", RemaskCheckpoint.Status.COMPLETED, job.process().getStatus());
+        assertEquals("Should mask the document", 1, client.written.size());
+    }
+
+    public void testThrottlesBatches() throws Exception {
+        FakeRemaskClient client = new FakeRemaskClient();
+        client.addPage(0, document("1", 0, "a"), document("2", 0, "b"));
+        client.addPage(0, document("3", 0, "c"), document("4", 0, "d"));
+
+        long start = System.nanoTime();
+        RemaskCheckpoint checkpoint = newJob(client, "node:1").run(new RemaskRequest("job-1", "logs", 1, 2, 20f, false));
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals("Should complete", RemaskCheckpoint.Status.COMPLETED, checkpoint.getStatus());
+        assertEquals("Should read every document", 4, checkpoint.getSliceCheckpoints().get(0).getProcessed());
+        assertTrue("Should take about 200ms at 20 documents per second, took " + elapsedMillis + "ms",
+            elapsedMillis >= 150);
+    }
+
+    public void testScrollOutlivesThrottleDelay() throws Exception {
+        FakeRemaskClient client = new FakeRemaskClient();
+        client.addPage(0, document("1", 0, "SSN: 123-45-6789"));
+
+        // A full batch of 500 at 2 documents per second waits 250s before the next page, past the base keep-alive
+        RemaskCheckpoint checkpoint = newJob(client, "node:1").run(new RemaskRequest("job-1", "logs", 1, 500, 2f, false));
+
+        assertEquals("Should complete", RemaskCheckpoint.Status.COMPLETED, checkpoint.getStatus());
+        assertEquals("Should request the first and second page", 2, client.keepAlives.size());
+        for (TimeValue keepAlive : client.keepAlives) {
+            assertTrue("Keep-alive " + keepAlive + " should cover the 250s delay on top of 5m",
+                keepAlive.seconds() >= TimeValue.timeValueMinutes(5).seconds() + 250);
+        }
+    }
+
+    public void testRejectsThrottleDelayBeyondLimit() {
+        assertNull("Should accept a slow but bounded rate", new RemaskRequest("job-1", "logs", 1, 500, 1f, false).validate());
+        ActionRequestValidationException e = new RemaskRequest("job-1", "logs", 4, 500, 0.1f, false).validate();
+        assertNotNull("Should reject waiting hours between batches", e);
+        assertTrue("Should name the throttle", e.getMessage().contains("[requests_per_second]"));
+    }
+
+    public void testCancelStopsScrolling() throws Exception {
+        FakeRemaskClient client = new FakeRemaskClient();
+        client.addPage(0, document("1", 0, "SSN: 123-45-6789"));
+        client.addPage(0, document("2", 0, "SSN: 987-65-4321"));
+
+        RemaskJob job = new RemaskJob(client, newProcessor(), null, "node:1", () -> client.written.size() > 0);
+        RemaskCheckpoint checkpoint = job.run(new RemaskRequest("job-1", "logs", 1, 1, 0f, false));
+
+        assertEquals("Should be cancelled", RemaskCheckpoint.Status.CANCELLED, checkpoint.getStatus());
+        assertEquals("Should stop after the first batch", 1, checkpoint.getSliceCheckpoints().get(0).getProcessed());
+        assertFalse("Should leave the slice to be resumed", checkpoint.getSliceCheckpoints().get(0).isCompleted());
+        assertEquals("Should persist the cancellation", RemaskCheckpoint.Status.CANCELLED,
+            client.stored.getCheckpoint().getStatus());
+    }
+
+    public void testRejectsRoutePolicy() throws Exception {
+        useOversizePolicy(PIIConfiguration.ScanLimits.OversizePolicy.ROUTE);
+        FakeRemaskClient client = new FakeRemaskClient();
+
+        expectThrows(IllegalArgumentException.class,
+            () -> newJob(client, "node:1").run(new RemaskRequest("job-1", "logs", 1, 10, 0f, false)));
+        assertNull("Should not create a checkpoint", client.stored);
+    }
+
+    public void testRemaskCheckpointRoundTrip() throws Exception {
+        RemaskCheckpoint checkpoint = new RemaskCheckpoint("job-1", "logs", 2, 100, 50f);
+        checkpoint.setStatus(RemaskCheckpoint.Status.CANCELLED);
+        checkpoint.setTaskId("node-1:42");
+
+        XContentBuilder builder = checkpoint.toXContent(XContentFactory.jsonBuilder(), ToXContent.EMPTY_PARAMS);
+        Map<String, Object> source = XContentHelper.convertToMap(BytesReference.bytes(builder), false, XContentType.JSON).v2();
+        RemaskCheckpoint restored = RemaskCheckpoint.fromSourceMap(source);
+
+        assertEquals("Should keep job id", "job-1", restored.getJobId());
+        assertEquals("Should keep index", "logs", restored.getIndex());
+        assertEquals("Should keep slices", 2, restored.getSliceCheckpoints().size());
+        assertEquals("Should keep batch size", 100, restored.getBatchSize());
+        assertEquals("Should keep throttle", 50f, restored.getRequestsPerSecond(), 0f);
+        assertEquals("Should keep status", RemaskCheckpoint.Status.CANCELLED, restored.getStatus());
+        assertEquals("Should keep task id", "node-1:42", restored.getTaskId());
+        assertFalse("Should keep slice progress", restored.getSliceCheckpoints().get(1).isCompleted());
+    }
+
+    private static void useOversizePolicy(PIIConfiguration.ScanLimits.OversizePolicy policy) {
+        Map<String, PIIConfiguration.MaskingRule> rules = new HashMap<>();
+        rules.put("ssn", new PIIConfiguration.MaskingRule("\\b\\d{3}-\\d{2}-\\d{4}\\b", "***-**-****"));
+        PIIConfiguration.ScanLimits limits = new PIIConfiguration.ScanLimits(
+            1024, 4096, policy, "[TRUNCATED]", "pii_slow_path");
+        PIIMaskingProcessor.updateGlobalConfiguration(new PIIConfiguration(
+            true, "audit-test", rules, List.of("message"), false, PIIConfiguration.OverlapStrategy.PRIORITY, limits));
+    }
+
+    private static PIIMaskingProcessor newProcessor() throws Exception {
+        return (PIIMaskingProcessor) new PIIMaskingProcessor.Factory(null).create(null, "test", null, new HashMap<>());
+    }
+
+    private static RemaskJob newJob(FakeRemaskClient client, String taskId) throws Exception {
+        return new RemaskJob(client, newProcessor(), null, taskId, () -> false);
+    }
+
+    private static RemaskClient.StoredDocument document(String id, long seqNo, String message) {
+        Map<String, Object> source = new HashMap<>();
+        source.put("message", message);
+        return new RemaskClient.StoredDocument("logs", id, null, seqNo, 1, source);
+    }
+
+    /**
+     * Serves scroll pages from memory and keeps the checkpoint like a single-document index
+     */
+    private static class FakeRemaskClient implements RemaskClient {
+        private final Map<Integer, List<List<StoredDocument>>> pages = new HashMap<>();
+        private final Set<String> conflicting = new HashSet<>();
+        private final Set<String> runningTasks = new HashSet<>();
+        private final List<Integer> scrolledSlices = Collections.synchronizedList(new ArrayList<>());
+        private final List<String> clearedScrolls = Collections.synchronizedList(new ArrayList<>());
+        private final List<TimeValue> keepAlives = Collections.synchronizedList(new ArrayList<>());
+        private final List<StoredDocument> written = Collections.synchronizedList(new ArrayList<>());
+        private volatile StoredCheckpoint stored;
+        private boolean changeBeforeReplace;
+
+        void addPage(int sliceId, StoredDocument... documents) {
+            pages.computeIfAbsent(sliceId, k -> new ArrayList<>()).add(List.of(documents));
+        }
+
+        @Override
+        public ScrollPage startScroll(String index, int sliceId, int slices, int batchSize, TimeValue keepAlive) {
+            scrolledSlices.add(sliceId);
+            keepAlives.add(keepAlive);
+            return page(sliceId, 0);
+        }
+
+        @Override
+        public ScrollPage continueScroll(String scrollId, TimeValue keepAlive) {
+            keepAlives.add(keepAlive);
+            String[] parts = scrollId.split("-");
+            return page(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]) + 1);
+        }
+
+        private ScrollPage page(int sliceId, int page) {
+            List<List<StoredDocument>> slicePages = pages.getOrDefault(sliceId, List.of());
+            List<StoredDocument> documents = page < slicePages.size() ? slicePages.get(page) : List.of();
+            return new ScrollPage(sliceId + "-" + page, documents);
+        }
+
+        @Override
+        public void clearScroll(String scrollId) {
+            clearedScrolls.add(scrollId);
+        }
+
+        @Override
+        public List<WriteResult> write(List<StoredDocument> documents) {
+            List<WriteResult> results = new ArrayList<>();
+            for (StoredDocument document : documents) {
+                written.add(document);
+                results.add(conflicting.contains(document.getId()) ? WriteResult.CONFLICT : WriteResult.UPDATED);
+            }
+            return results;
+        }
+
+        @Override
+        public StoredCheckpoint getCheckpoint(String jobId) {
+            return stored;
+        }
+
+        @Override
+        public synchronized boolean createCheckpoint(RemaskCheckpoint checkpoint) {
+            if (stored != null) {
+                return false;
+            }
+            stored = new StoredCheckpoint(checkpoint, 0, 1);
+            return true;
+        }
+
+        @Override
+        public synchronized boolean replaceCheckpoint(RemaskCheckpoint checkpoint, long seqNo, long primaryTerm) {
+            if (changeBeforeReplace) {
+                stored = new StoredCheckpoint(stored.getCheckpoint(), stored.getSeqNo() + 1, stored.getPrimaryTerm());
+            }
+            if (stored.getSeqNo() != seqNo || stored.getPrimaryTerm() != primaryTerm) {
+                return false;
+            }
+            stored = new StoredCheckpoint(checkpoint, seqNo + 1, primaryTerm);
+            return true;
+        }
+
+        @Override
+        public synchronized void saveCheckpoint(RemaskCheckpoint checkpoint) {
+            stored = new StoredCheckpoint(checkpoint, stored == null ? 0 : stored.getSeqNo() + 1, 1);
+        }
+
+        @Override
+        public boolean isTaskRunning(String taskId) {
+            return runningTasks.contains(taskId);
+        }
+    }
+}